@@ -77,10 +77,18 @@ public class MainCLI {
                 System.out.println("2. UCS");
                 System.out.println("3. Greedy Best-First Search");
                 System.out.println("4. Iterative Deepening A*");
-                System.out.print("Enter your choice (1-4): ");
+                System.out.println("5. Parallel A* (HDA*)");
+                System.out.println("6. Parallel IDA*");
+                System.out.println("7. Anytime A* (ARA*)");
+                System.out.println("8. Weighted A*");
+                System.out.println("9. Focal search");
+                System.out.println("10. Bidirectional search");
+                System.out.println("11. Retrograde analysis (distance of every state)");
+                System.out.println("12. External-memory BFS (layers on disk)");
+                System.out.print("Enter your choice (1-12): ");
                 choice = scanner.nextInt();
                 
-                if (choice < 1 || choice > 4) {
+                if (choice < 1 || choice > 12) {
                     System.out.println("Invalid choice. Defaulting to UCS (option 2).");
                     choice = 2;
                 }
@@ -105,6 +113,30 @@ public class MainCLI {
                 case 4:
                     algorithmName = "IDAStar";
                     break;
+                case 5:
+                    algorithmName = "ParallelAStar";
+                    break;
+                case 6:
+                    algorithmName = "ParallelIDAStar";
+                    break;
+                case 7:
+                    algorithmName = "ARAStar";
+                    break;
+                case 8:
+                    algorithmName = "WeightedAStar";
+                    break;
+                case 9:
+                    algorithmName = "FocalSearch";
+                    break;
+                case 10:
+                    algorithmName = "Bidirectional";
+                    break;
+                case 11:
+                    algorithmName = "Retrograde";
+                    break;
+                case 12:
+                    algorithmName = "ExternalBFS";
+                    break;
                 default:
                     algorithmName = "Unknown";
             }
@@ -113,7 +145,7 @@ public class MainCLI {
             
             // If using A* or Greedy, ask for heuristic with error handling
             Heuristic selectedHeuristic = null;
-            if (choice == 1 || choice == 3 || choice == 4) {
+            if (choice == 1 || choice >= 3 && choice <= 9) {
                 try {
                     System.out.println("\nChoose a heuristic:");
                     System.out.println("1. Distance to exit");
@@ -121,7 +153,8 @@ public class MainCLI {
                     System.out.println("3. Combined (distance + blocking cars)");
                     System.out.println("4. Mobility Score");
                     System.out.println("5. Blocking Car Distance");
-                    System.out.print("Enter your choice (1-5): ");
+                    System.out.println("6. Pattern database");
+                    System.out.print("Enter your choice (1-6): ");
                     int heuristicChoice = scanner.nextInt();
                     
                     switch (heuristicChoice) {
@@ -140,6 +173,9 @@ public class MainCLI {
                         case 5: 
                             selectedHeuristic = new BlockingCarDistance(); 
                             break;
+                        case 6:
+                            selectedHeuristic = new PatternDatabase();
+                            break;
                         default:
                             System.out.println("Invalid choice. Using Distance heuristic.");
                             selectedHeuristic = new Distance();
@@ -151,6 +187,148 @@ public class MainCLI {
                 }
             }
 
+            // A* and UCS can use either a binary heap or a bucket queue as open list,
+            // UCS can also run as parallel breadth-first search since every move costs 1
+            boolean useBucketQueue = false;
+            boolean parallelBfs = false;
+            if (choice == 1 || choice == 2) {
+                try {
+                    System.out.println("\nChoose the open list:");
+                    System.out.println("1. Binary heap (PriorityQueue)");
+                    System.out.println("2. Bucket queue (faster on large frontiers)");
+                    if (choice == 2) {
+                        System.out.println("3. Parallel breadth-first layers (uses all cores)");
+                    }
+                    System.out.print("Enter your choice (1-" + (choice == 2 ? 3 : 2) + "): ");
+                    int queueChoice = scanner.nextInt();
+                    
+                    if (queueChoice == 2) {
+                        useBucketQueue = true;
+                    } else if (queueChoice == 3 && choice == 2) {
+                        parallelBfs = true;
+                    } else if (queueChoice != 1) {
+                        System.out.println("Invalid choice. Using binary heap.");
+                    }
+                } catch (InputMismatchException ex) {
+                    System.out.println("Invalid input. Using binary heap.");
+                    scanner.nextLine(); // Clear the scanner buffer
+                }
+            }
+
+            // A*, UCS and Greedy can keep the search tree in a compact path store
+            boolean compactPath = false;
+            if (choice >= 1 && choice <= 3 && !parallelBfs) {
+                try {
+                    System.out.println("\nChoose how to store the search tree:");
+                    System.out.println("1. Parent references");
+                    System.out.println("2. Compact path store (less memory on deep searches)");
+                    System.out.print("Enter your choice (1-2): ");
+                    int pathChoice = scanner.nextInt();
+                    
+                    if (pathChoice == 2) {
+                        compactPath = true;
+                    } else if (pathChoice != 1) {
+                        System.out.println("Invalid choice. Using parent references.");
+                    }
+                } catch (InputMismatchException ex) {
+                    System.out.println("Invalid input. Using parent references.");
+                    scanner.nextLine(); // Clear the scanner buffer
+                }
+            }
+
+            // On small boards every state has a dense rank, so visited states fit in a bitset.
+            // A bitset cannot re-open states, so A* only gets it with a consistent heuristic
+            boolean bitsetVisited = false;
+            if (choice == 1 && !selectedHeuristic.isConsistent()) {
+                System.out.println("\nBitset visited set not offered: " + selectedHeuristic.getName() + " is not consistent.");
+            } else if ((choice == 1 || choice == 2) && !parallelBfs) {
+                try {
+                    System.out.println("\nChoose the visited set:");
+                    System.out.println("1. Hash table");
+                    System.out.println("2. Bitset over ranked states (small boards)");
+                    System.out.print("Enter your choice (1-2): ");
+                    int visitedChoice = scanner.nextInt();
+                    
+                    if (visitedChoice == 2) {
+                        bitsetVisited = true;
+                    } else if (visitedChoice != 1) {
+                        System.out.println("Invalid choice. Using hash table.");
+                    }
+                } catch (InputMismatchException ex) {
+                    System.out.println("Invalid input. Using hash table.");
+                    scanner.nextLine(); // Clear the scanner buffer
+                }
+            }
+
+            // UCS can stop one layer earlier by testing successors as they are generated
+            boolean goalTestOnGeneration = false;
+            if (choice == 2 && !parallelBfs) {
+                try {
+                    System.out.println("\nChoose when to test for the goal:");
+                    System.out.println("1. When a state is expanded");
+                    System.out.println("2. When a state is generated (skips the rest of the last layer)");
+                    System.out.print("Enter your choice (1-2): ");
+                    int goalChoice = scanner.nextInt();
+                    
+                    if (goalChoice == 2) {
+                        goalTestOnGeneration = true;
+                    } else if (goalChoice != 1) {
+                        System.out.println("Invalid choice. Testing on expansion.");
+                    }
+                } catch (InputMismatchException ex) {
+                    System.out.println("Invalid input. Testing on expansion.");
+                    scanner.nextLine(); // Clear the scanner buffer
+                }
+            }
+
+            // A* can fall back to IDA* instead of running out of memory
+            long memoryBudget = 0;
+            if (choice == 1) {
+                try {
+                    System.out.print("\nMemory budget for A* in MB (0 for no limit): ");
+                    memoryBudget = Math.max(0, scanner.nextLong()) * 1024 * 1024;
+                } catch (InputMismatchException ex) {
+                    System.out.println("Invalid input. Using no limit.");
+                    scanner.nextLine(); // Clear the scanner buffer
+                }
+            }
+
+            // IDA* can remember bounds of states it already searched
+            int transpositionTableSize = 0;
+            if (choice == 4) {
+                try {
+                    System.out.print("\nTransposition table entries for IDA* (0 for none): ");
+                    transpositionTableSize = Math.max(0, scanner.nextInt());
+                } catch (InputMismatchException ex) {
+                    System.out.println("Invalid input. Using no table.");
+                    scanner.nextLine(); // Clear the scanner buffer
+                }
+            }
+
+            // ARA* keeps improving its solution until it is optimal or time runs out
+            long timeLimitMillis = 0;
+            if (choice == 7) {
+                try {
+                    System.out.print("\nTime limit for ARA* in seconds (0 for no limit): ");
+                    timeLimitMillis = Math.max(0, scanner.nextLong()) * 1000;
+                } catch (InputMismatchException ex) {
+                    System.out.println("Invalid input. Using no limit.");
+                    scanner.nextLine(); // Clear the scanner buffer
+                }
+            }
+
+            // Weighted A* and focal search trade optimality for speed within a bound
+            double suboptimalityBound = 1.5;
+            if (choice == 8 || choice == 9) {
+                try {
+                    System.out.print("\nSuboptimality bound (e.g. 1.5): ");
+                    suboptimalityBound = Math.max(1.0, scanner.nextDouble());
+                } catch (InputMismatchException ex) {
+                    System.out.println("Invalid input. Using 1.5.");
+                    scanner.nextLine(); // Clear the scanner buffer
+                }
+            }
+
             State goalState = null;
             
             System.out.println("\nSolving puzzle...");
@@ -167,15 +345,33 @@ public class MainCLI {
                         // A* algorithm
                         System.out.println("Using A* algorithm with " + selectedHeuristic.getName() + " heuristic...");
                         outputContent.append("Using A* algorithm with " + selectedHeuristic.getName() + " heuristic...\n");
-                        AStar solver = new AStar(parsed.width, parsed.height, parsed.kRow, parsed.kCol, parsed.exitDirection, selectedHeuristic);
+                        AStar solver = new AStar(parsed.width, parsed.height, parsed.kRow, parsed.kCol, parsed.exitDirection, selectedHeuristic, useBucketQueue);
+                        solver.setCompactPath(compactPath);
+                        solver.setBitsetVisited(bitsetVisited);
+                        solver.setMemoryBudget(memoryBudget);
                         goalState = solver.find(root);
                         visitedNodeCount = solver.getVisitedNodeCount();
+                        System.out.println("Solved by: " + solver.getFinishedMode());
+                        outputContent.append("Solved by: " + solver.getFinishedMode() + "\n");
                         break;
                     case 2:
+                        if (parallelBfs) {
+                            // Level-synchronous BFS, same step count as UCS
+                            int bfsThreads = Runtime.getRuntime().availableProcessors();
+                            System.out.println("Using parallel BFS on " + bfsThreads + " threads...");
+                            outputContent.append("Using parallel BFS on " + bfsThreads + " threads...\n");
+                            ParallelBFS bfs = new ParallelBFS(parsed.width, parsed.height, parsed.kRow, parsed.kCol, parsed.exitDirection, bfsThreads);
+                            goalState = bfs.find(root);
+                            visitedNodeCount = bfs.getVisitedNodeCount();
+                            break;
+                        }
                         // UCS algorithm
                         System.out.println("Using UCS algorithm...");
                         outputContent.append("Using UCS algorithm...\n");
-                        UCS solver2 = new UCS(parsed.width, parsed.height, parsed.kRow, parsed.kCol, parsed.exitDirection);
+                        UCS solver2 = new UCS(parsed.width, parsed.height, parsed.kRow, parsed.kCol, parsed.exitDirection, useBucketQueue);
+                        solver2.setCompactPath(compactPath);
+                        solver2.setBitsetVisited(bitsetVisited);
+                        solver2.setGoalTestOnGeneration(goalTestOnGeneration);
                         goalState = solver2.find(root);
                         visitedNodeCount = solver2.getVisitedNodeCount();
                         break;
@@ -184,6 +380,7 @@ public class MainCLI {
                         System.out.println("Using Greedy Best-First Search with " + selectedHeuristic.getName() + " heuristic...");
                         outputContent.append("Using Greedy Best-First Search with " + selectedHeuristic.getName() + " heuristic...\n");
                         GreedyBFS solver3 = new GreedyBFS(parsed.width, parsed.height, parsed.kRow, parsed.kCol, parsed.exitDirection, selectedHeuristic);
+                        solver3.setCompactPath(compactPath);
                         goalState = solver3.find(root);
                         visitedNodeCount = solver3.getVisitedNodeCount();
                         break;
@@ -192,9 +389,81 @@ public class MainCLI {
                         System.out.println("Using Iterative Deepening A* with " + selectedHeuristic.getName() + " heuristic...");
                         outputContent.append("Using Iterative Deepening A* with " + selectedHeuristic.getName() + " heuristic...\n");
                         IDAStar solver4 = new IDAStar(parsed.width, parsed.height, parsed.kRow, parsed.kCol, parsed.exitDirection, selectedHeuristic);
+                        solver4.setTranspositionTableSize(transpositionTableSize);
                         goalState = solver4.find(root);
                         visitedNodeCount = solver4.getVisitedNodeCount();
                         break;
+                    case 5:
+                        // Hash-distributed parallel A*, one worker per core
+                        int threads = Runtime.getRuntime().availableProcessors();
+                        System.out.println("Using parallel A* on " + threads + " threads with " + selectedHeuristic.getName() + " heuristic...");
+                        outputContent.append("Using parallel A* on " + threads + " threads with " + selectedHeuristic.getName() + " heuristic...\n");
+                        ParallelAStar solver5 = new ParallelAStar(parsed.width, parsed.height, parsed.kRow, parsed.kCol, parsed.exitDirection, selectedHeuristic, threads);
+                        goalState = solver5.find(root);
+                        visitedNodeCount = solver5.getVisitedNodeCount();
+                        break;
+                    case 6:
+                        // IDA* split at shallow depth over a work-stealing pool
+                        int idaThreads = Runtime.getRuntime().availableProcessors();
+                        System.out.println("Using parallel IDA* on " + idaThreads + " threads with " + selectedHeuristic.getName() + " heuristic...");
+                        outputContent.append("Using parallel IDA* on " + idaThreads + " threads with " + selectedHeuristic.getName() + " heuristic...\n");
+                        ParallelIDAStar solver6 = new ParallelIDAStar(parsed.width, parsed.height, parsed.kRow, parsed.kCol, parsed.exitDirection, selectedHeuristic, idaThreads);
+                        goalState = solver6.find(root);
+                        visitedNodeCount = solver6.getVisitedNodeCount();
+                        break;
+                    case 7:
+                        // Anytime repairing A*, weight on h lowered from 3 to 1
+                        System.out.println("Using ARA* with " + selectedHeuristic.getName() + " heuristic...");
+                        outputContent.append("Using ARA* with " + selectedHeuristic.getName() + " heuristic...\n");
+                        ARAStar solver7 = new ARAStar(parsed.width, parsed.height, parsed.kRow, parsed.kCol, parsed.exitDirection, selectedHeuristic, 3.0, 0.5, timeLimitMillis);
+                        solver7.setSolutionListener(solution -> outputContent.append("Found solution with " + solution.cost + " steps\n"));
+                        goalState = solver7.find(root);
+                        visitedNodeCount = solver7.getVisitedNodeCount();
+                        outputContent.append(String.format("Suboptimality bound: %.2f\n", solver7.getBound()));
+                        break;
+                    case 8:
+                        // Weighted A*, f = g + w * h
+                        System.out.println("Using weighted A* (w = " + suboptimalityBound + ") with " + selectedHeuristic.getName() + " heuristic...");
+                        outputContent.append("Using weighted A* (w = " + suboptimalityBound + ") with " + selectedHeuristic.getName() + " heuristic...\n");
+                        WeightedAStar solver8 = new WeightedAStar(parsed.width, parsed.height, parsed.kRow, parsed.kCol, parsed.exitDirection, selectedHeuristic, suboptimalityBound);
+                        goalState = solver8.find(root);
+                        visitedNodeCount = solver8.getVisitedNodeCount();
+                        break;
+                    case 9:
+                        // Focal search, greedy on h among nodes within the bound
+                        System.out.println("Using focal search (w = " + suboptimalityBound + ") with " + selectedHeuristic.getName() + " heuristic...");
+                        outputContent.append("Using focal search (w = " + suboptimalityBound + ") with " + selectedHeuristic.getName() + " heuristic...\n");
+                        FocalSearch solver9 = new FocalSearch(parsed.width, parsed.height, parsed.kRow, parsed.kCol, parsed.exitDirection, selectedHeuristic, suboptimalityBound);
+                        goalState = solver9.find(root);
+                        visitedNodeCount = solver9.getVisitedNodeCount();
+                        break;
+                    case 10:
+                        // Breadth-first from both ends, backward side seeded with the whole goal set
+                        System.out.println("Using bidirectional search...");
+                        outputContent.append("Using bidirectional search...\n");
+                        BidirectionalSearch solver10 = new BidirectionalSearch(parsed.width, parsed.height, parsed.kRow, parsed.kCol, parsed.exitDirection);
+                        goalState = solver10.find(root);
+                        visitedNodeCount = solver10.getVisitedNodeCount();
+                        outputContent.append("Goal states: " + solver10.getGoalCount() + "\n");
+                        break;
+                    case 11:
+                        // Backward BFS over the whole reachable state space into a dense distance table
+                        System.out.println("Using retrograde analysis...");
+                        outputContent.append("Using retrograde analysis...\n");
+                        RetrogradeSolver solver11 = new RetrogradeSolver(parsed.width, parsed.height, parsed.kRow, parsed.kCol, parsed.exitDirection);
+                        goalState = solver11.find(root);
+                        visitedNodeCount = solver11.getVisitedNodeCount();
+                        outputContent.append("Solvable states: " + solver11.getSolvableCount() + "\n");
+                        outputContent.append("Hardest solvable state: " + solver11.getMaxDistance() + " moves\n");
+                        break;
+                    case 12:
+                        // Breadth-first layers as sorted files, duplicates removed by merging
+                        System.out.println("Using external-memory BFS...");
+                        outputContent.append("Using external-memory BFS...\n");
+                        ExternalBFS solver12 = new ExternalBFS(parsed.width, parsed.height, parsed.kRow, parsed.kCol, parsed.exitDirection);
+                        goalState = solver12.find(root);
+                        visitedNodeCount = solver12.getVisitedNodeCount();
+                        break;
                     default:
                         throw new IllegalStateException("Invalid algorithm choice: " + choice);
                 }
@@ -219,13 +488,7 @@ public class MainCLI {
                 outputContent.append("\nSolution Path:\n");
                 
                 // Build a list of states in order from initial to goal
-                List<State> statePath = new ArrayList<>();
-                State currentState = goalState;
-                while (currentState != null) {
-                    statePath.add(currentState);
-                    currentState = currentState.parent;
-                }
-                Collections.reverse(statePath);
+                List<State> statePath = goalState.getSolutionPath(parsed.width, parsed.height);
                 
                 // Print initial state
                 System.out.println("Initial state:");
@@ -37,6 +37,7 @@ public class MainGUI extends Application {
     private State currentState;
     private String selectedAlgorithm = "A*";
     private Heuristic selectedHeuristic;
+    private double suboptimalityBound = 1.5;
     private Label lblVisitedNodes;
     private Label lblExecutionTime;
     private Label lblStep;
@@ -134,7 +135,9 @@ public class MainGUI extends Application {
         ComboBox<String> algorithmComboBox = new ComboBox<>();
         algorithmComboBox.setMaxWidth(Double.MAX_VALUE);
         algorithmComboBox.setItems(FXCollections.observableArrayList(
-            "A*", "Uniform Cost Search (UCS)", "Greedy Best-First Search", "Iterative Deepening A*"
+            "A*", "Uniform Cost Search (UCS)", "Greedy Best-First Search", "Iterative Deepening A*",
+            "Parallel A* (HDA*)", "Parallel IDA*", "Anytime A* (ARA*)", "Weighted A*", "Focal Search",
+            "Bidirectional Search", "Retrograde Analysis", "External-Memory BFS"
         ));
         algorithmComboBox.getSelectionModel().selectFirst();
         algorithmConfig.getChildren().addAll(lblAlgorithm, algorithmComboBox);
@@ -150,11 +153,21 @@ public class MainGUI extends Application {
             "Number of Blocking Cars", 
             "Combined (Distance + Blocking)",
             "Mobility Score",
-            "Blocking Car Distance"
+            "Blocking Car Distance",
+            "Pattern Database"
         ));
         heuristicComboBox.getSelectionModel().selectFirst();
         heuristicConfig.getChildren().addAll(lblHeuristic, heuristicComboBox);
         
+        // Suboptimality bound for weighted A* and focal search
+        HBox boundConfig = new HBox(10);
+        boundConfig.setAlignment(Pos.CENTER_LEFT);
+        Label lblBound = new Label("Suboptimality Bound:");
+        Spinner<Double> boundSpinner = new Spinner<>(1.0, 5.0, suboptimalityBound, 0.1);
+        boundSpinner.setEditable(true);
+        boundSpinner.setPrefWidth(80);
+        boundConfig.getChildren().addAll(lblBound, boundSpinner);
+        
         // Primary piece orientation
         VBox orientationConfig = new VBox(5);
         orientationConfig.setAlignment(Pos.CENTER_LEFT);
@@ -323,6 +336,7 @@ public class MainGUI extends Application {
             lblSolverConfig,
             algorithmConfig,
             heuristicConfig,
+            boundConfig,
             orientationConfig,
             exitSideConfig,
             btnApplyConfig
@@ -389,6 +403,7 @@ public class MainGUI extends Application {
             boardWidth = widthSpinner.getValue();
             boardHeight = heightSpinner.getValue();
             selectedAlgorithm = algorithmComboBox.getValue();
+            suboptimalityBound = boundSpinner.getValue();
             isPrimaryHorizontal = rbHorizontal.isSelected();
             
             // Update selected heuristic based on combo box
@@ -408,6 +423,9 @@ public class MainGUI extends Application {
                 case "Blocking Car Distance":
                     selectedHeuristic = new BlockingCarDistance();
                     break;
+                case "Pattern Database":
+                    selectedHeuristic = new PatternDatabase();
+                    break;
                 default:
                     selectedHeuristic = new Distance();
                     break;
@@ -631,6 +649,55 @@ public class MainGUI extends Application {
                         visitedNodes = ida.getVisitedNodeCount();
                         break;
                         
+                    case "Parallel A* (HDA*)":
+                        ParallelAStar hda = new ParallelAStar(boardWidth, boardHeight, exitRow, exitCol, exitDirection, selectedHeuristic, Runtime.getRuntime().availableProcessors());
+                        solution = hda.find(currentState);
+                        visitedNodes = hda.getVisitedNodeCount();
+                        break;
+                        
+                    case "Parallel IDA*":
+                        ParallelIDAStar pida = new ParallelIDAStar(boardWidth, boardHeight, exitRow, exitCol, exitDirection, selectedHeuristic, Runtime.getRuntime().availableProcessors());
+                        solution = pida.find(currentState);
+                        visitedNodes = pida.getVisitedNodeCount();
+                        break;
+                        
+                    case "Anytime A* (ARA*)":
+                        // Keep the interface responsive: best solution after at most 5 seconds
+                        ARAStar ara = new ARAStar(boardWidth, boardHeight, exitRow, exitCol, exitDirection, selectedHeuristic, 3.0, 0.5, 5000);
+                        solution = ara.find(currentState);
+                        visitedNodes = ara.getVisitedNodeCount();
+                        break;
+                        
+                    case "Weighted A*":
+                        WeightedAStar wastar = new WeightedAStar(boardWidth, boardHeight, exitRow, exitCol, exitDirection, selectedHeuristic, suboptimalityBound);
+                        solution = wastar.find(currentState);
+                        visitedNodes = wastar.getVisitedNodeCount();
+                        break;
+                        
+                    case "Focal Search":
+                        FocalSearch focal = new FocalSearch(boardWidth, boardHeight, exitRow, exitCol, exitDirection, selectedHeuristic, suboptimalityBound);
+                        solution = focal.find(currentState);
+                        visitedNodes = focal.getVisitedNodeCount();
+                        break;
+                        
+                    case "Bidirectional Search":
+                        BidirectionalSearch bidir = new BidirectionalSearch(boardWidth, boardHeight, exitRow, exitCol, exitDirection);
+                        solution = bidir.find(currentState);
+                        visitedNodes = bidir.getVisitedNodeCount();
+                        break;
+                        
+                    case "Retrograde Analysis":
+                        RetrogradeSolver retro = new RetrogradeSolver(boardWidth, boardHeight, exitRow, exitCol, exitDirection);
+                        solution = retro.find(currentState);
+                        visitedNodes = retro.getVisitedNodeCount();
+                        break;
+                        
+                    case "External-Memory BFS":
+                        ExternalBFS external = new ExternalBFS(boardWidth, boardHeight, exitRow, exitCol, exitDirection);
+                        solution = external.find(currentState);
+                        visitedNodes = external.getVisitedNodeCount();
+                        break;
+                        
                     default:
                         throw new IllegalStateException("Unknown algorithm selected: " + selectedAlgorithm);
                 }
@@ -823,7 +890,8 @@ public class MainGUI extends Application {
                     writer.write(String.format("Board size: %d x %d\n", boardWidth, boardHeight));
                     writer.write(String.format("Exit direction: %s\n", exitDirection.toUpperCase()));
                     writer.write(String.format("Algorithm used: %s\n", selectedAlgorithm));
-                    if (!selectedAlgorithm.equals("Uniform Cost Search (UCS)")) {
+                    if (!selectedAlgorithm.equals("Uniform Cost Search (UCS)") && !selectedAlgorithm.equals("Bidirectional Search")
+                            && !selectedAlgorithm.equals("Retrograde Analysis") && !selectedAlgorithm.equals("External-Memory BFS")) {
                         writer.write(String.format("Heuristic used: %s\n", selectedHeuristic.getName()));
                     }
                     writer.write(String.format("Total steps: %d\n\n", solutionStates.size() - 1));
@@ -1241,16 +1309,8 @@ public class MainGUI extends Application {
     }
     
     private List<State> buildSolutionPath(State goalState) {
-        List<State> path = new ArrayList<>();
-        State current = goalState;
-        
-        // Traverse up to the root state
-        while (current != null) {
-            path.add(0, current); // Add to the beginning of the list
-            current = current.parent;
-        }
-        
-        return path;
+        // Follows parent links, or replays the moves of a compact path from the initial board
+        return goalState.getSolutionPath(boardWidth, boardHeight);
     }
     
     private void showSolutionStep(int stepIndex) {
@@ -1,7 +1,9 @@
 package heuristic;
 
 import java.util.*;
+import util.Board;
 import util.Car;
+import util.PackedState;
 import util.State;
 
 /**
@@ -57,14 +59,11 @@ public class BlockingCarDistance implements Heuristic {
                     
                     if (chunk < state.occupied.length && (state.occupied[chunk] & (1L << bit)) != 0) {
                         // Found an occupied cell, find which car it is
-                        for (Car car : state.cars.values()) {
-                            if (car.id == 'P') continue; // Skip primary car
-                            
-                            if (chunk < car.bitmask.length && (car.bitmask[chunk] & (1L << bit)) != 0) {
-                                // Calculate minimum moves needed for this car to clear the path
-                                int moveDistance = calculateMinimumMoves(car, row, c, state, width, height);
-                                blockingCarsWithDistance.put(car.id, moveDistance);
-                            }
+                        Car car = state.carAt(idx);
+                        if (car != null && car.id != 'P') { // Skip primary car
+                            // Calculate minimum moves needed for this car to clear the path
+                            int moveDistance = calculateMinimumMoves(car, row, c, state, width, height);
+                            blockingCarsWithDistance.put(car.id, moveDistance);
                         }
                     }
                 }
@@ -77,13 +76,10 @@ public class BlockingCarDistance implements Heuristic {
                     
                     if (chunk < state.occupied.length && (state.occupied[chunk] & (1L << bit)) != 0) {
                         // Find which car it is
-                        for (Car car : state.cars.values()) {
-                            if (car.id == 'P') continue;
-                            
-                            if (chunk < car.bitmask.length && (car.bitmask[chunk] & (1L << bit)) != 0) {
-                                int moveDistance = calculateMinimumMoves(car, row, c, state, width, height);
-                                blockingCarsWithDistance.put(car.id, moveDistance);
-                            }
+                        Car car = state.carAt(idx);
+                        if (car != null && car.id != 'P') { // Skip primary car
+                            int moveDistance = calculateMinimumMoves(car, row, c, state, width, height);
+                            blockingCarsWithDistance.put(car.id, moveDistance);
                         }
                     }
                 }
@@ -107,13 +103,10 @@ public class BlockingCarDistance implements Heuristic {
                     int bit = idx % 64;
                     
                     if (chunk < state.occupied.length && (state.occupied[chunk] & (1L << bit)) != 0) {
-                        for (Car car : state.cars.values()) {
-                            if (car.id == 'P') continue;
-                            
-                            if (chunk < car.bitmask.length && (car.bitmask[chunk] & (1L << bit)) != 0) {
-                                int moveDistance = calculateMinimumMoves(car, r, col, state, width, height);
-                                blockingCarsWithDistance.put(car.id, moveDistance);
-                            }
+                        Car car = state.carAt(idx);
+                        if (car != null && car.id != 'P') { // Skip primary car
+                            int moveDistance = calculateMinimumMoves(car, r, col, state, width, height);
+                            blockingCarsWithDistance.put(car.id, moveDistance);
                         }
                     }
                 }
@@ -125,13 +118,10 @@ public class BlockingCarDistance implements Heuristic {
                     int bit = idx % 64;
                     
                     if (chunk < state.occupied.length && (state.occupied[chunk] & (1L << bit)) != 0) {
-                        for (Car car : state.cars.values()) {
-                            if (car.id == 'P') continue;
-                            
-                            if (chunk < car.bitmask.length && (car.bitmask[chunk] & (1L << bit)) != 0) {
-                                int moveDistance = calculateMinimumMoves(car, r, col, state, width, height);
-                                blockingCarsWithDistance.put(car.id, moveDistance);
-                            }
+                        Car car = state.carAt(idx);
+                        if (car != null && car.id != 'P') { // Skip primary car
+                            int moveDistance = calculateMinimumMoves(car, r, col, state, width, height);
+                            blockingCarsWithDistance.put(car.id, moveDistance);
                         }
                     }
                 }
@@ -308,4 +298,141 @@ public class BlockingCarDistance implements Heuristic {
             }
         }
     }
+    
+    /**
+     * Calculates the same value for a packed state, reading the car offsets and the occupancy bitboard.
+     * 
+     * @param board Board descriptor shared by all packed states
+     * @param state The packed state to evaluate
+     * @return Combined heuristic value or MAX_VALUE if car orientation is incompatible with exit
+     */
+    @Override
+    public int calculate(Board board, PackedState state) {
+        if (!BlockingCars.isCompatible(board)) return Integer.MAX_VALUE;
+        
+        long[] occupied = board.occupancy(state);
+        int from = BlockingCars.segmentStart(board, state);
+        int to = BlockingCars.segmentEnd(board, state);
+        int total = distanceToExit(board, state);
+        for (int car = 0; car < board.carCount; car++) {
+            if (car != board.primaryIndex && BlockingCars.blocks(board, car, state.offset(car), from, to)) {
+                total += minimumMoves(board, occupied, car, state.offset(car));
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * Adjusts the parent's value for the blocking cars whose lane the move touched.
+     * The moves a blocking car needs depend only on the cells of its own lane, so
+     * only the moved car itself and the blocking cars whose lane crosses the cells
+     * it left or entered are evaluated again. A move of P changes the distance to
+     * the exit and the cells in its lane, so it is evaluated from scratch.
+     * 
+     * @param board Board descriptor shared by all packed states
+     * @param parent The state before the move
+     * @param parentH Value this heuristic returned for the parent
+     * @param child The state after the move
+     * @param car Index of the car that was moved
+     * @return Combined heuristic value or MAX_VALUE if car orientation is incompatible with exit
+     */
+    @Override
+    public int update(Board board, PackedState parent, int parentH, PackedState child, int car) {
+        if (parentH == Integer.MAX_VALUE) return parentH;
+        if (car == board.primaryIndex) return calculate(board, child);
+        
+        int from = BlockingCars.segmentStart(board, child);
+        int to = BlockingCars.segmentEnd(board, child);
+        int low = Math.min(parent.offset(car), child.offset(car));
+        int high = Math.max(parent.offset(car), child.offset(car)) + board.length[car]; // Eksklusif
+        long[] before = null;
+        long[] after = null;
+        int h = parentH;
+        for (int other = 0; other < board.carCount; other++) {
+            if (other == board.primaryIndex) continue;
+            if (other != car) {
+                // Lajur mobil lain harus memotong sel yang berubah
+                boolean touched = board.horizontal[other] == board.horizontal[car]
+                    ? board.lane[other] == board.lane[car]
+                    : board.lane[other] >= low && board.lane[other] < high;
+                if (!touched || !BlockingCars.blocks(board, other, child.offset(other), from, to)) continue;
+            }
+            
+            if (before == null) {
+                before = board.occupancy(parent);
+                after = before.clone();
+                long[] left = board.placementMask(car, parent.offset(car));
+                long[] entered = board.placementMask(car, child.offset(car));
+                for (int c = 0; c < after.length; c++) {
+                    after[c] ^= left[c] ^ entered[c];
+                }
+            }
+            if (BlockingCars.blocks(board, other, parent.offset(other), from, to)) {
+                h -= minimumMoves(board, before, other, parent.offset(other));
+            }
+            if (BlockingCars.blocks(board, other, child.offset(other), from, to)) {
+                h += minimumMoves(board, after, other, child.offset(other));
+            }
+        }
+        return h;
+    }
+    
+    /**
+     * Returns how far P is from the exit edge.
+     * 
+     * @param board Board descriptor
+     * @param state Packed state
+     * @return Number of cells between P and the exit edge
+     */
+    private int distanceToExit(Board board, PackedState state) {
+        int p = board.primaryIndex;
+        boolean towardEnd = "right".equals(board.exitDirection) || "bottom".equals(board.exitDirection);
+        return towardEnd ? board.laneLength(p) - state.offset(p) - board.length[p] : state.offset(p);
+    }
+    
+    /**
+     * Packed counterpart of {@link #calculateMinimumMoves}.
+     * A car parallel to P is measured against its last cell on the way to the exit,
+     * which is the cell the scan in {@link #calculate(State, int, int, String)} records last.
+     * 
+     * @param board Board descriptor
+     * @param occupied Occupancy bitboard of the state
+     * @param car Index of the blocking car
+     * @param offset Offset of the blocking car along its lane
+     * @return Minimum moves needed to clear the path or a penalty value if not possible
+     */
+    private int minimumMoves(Board board, long[] occupied, int car, int offset) {
+        int p = board.primaryIndex;
+        int head = offset;
+        int tail = offset + board.length[car] - 1;
+        int blockAt;
+        if (board.horizontal[car] != board.horizontal[p]) {
+            blockAt = board.lane[p];
+        } else {
+            blockAt = "right".equals(board.exitDirection) || "bottom".equals(board.exitDirection) ? tail : head;
+        }
+        
+        // Geser ke arah posisi 0 (kiri atau atas)
+        int towardStart = Integer.MAX_VALUE;
+        for (int step = 1; step <= head; step++) {
+            if (Board.isSet(occupied, board.headCell(car, head - step))) break;
+            if (tail - step < blockAt) {
+                towardStart = step;
+                break;
+            }
+        }
+        
+        // Geser ke arah ujung lajur (kanan atau bawah)
+        int towardEnd = Integer.MAX_VALUE;
+        for (int step = 1; step < board.laneLength(car) - tail; step++) {
+            if (Board.isSet(occupied, board.headCell(car, tail + step))) break;
+            if (head + step > blockAt) {
+                towardEnd = step;
+                break;
+            }
+        }
+        
+        int best = Math.min(towardStart, towardEnd);
+        return best == Integer.MAX_VALUE ? 3 : best;
+    }
 }
\ No newline at end of file
@@ -2,7 +2,9 @@ package heuristic;
 
 import java.util.HashSet;
 import java.util.Set;
+import util.Board;
 import util.Car;
+import util.PackedState;
 import util.State;
 
 /**
@@ -20,6 +22,17 @@ public class BlockingCars implements Heuristic {
         return "Number of Blocking Cars";
     }
     
+    /**
+     * One move takes at most one car out of the lane in front of the primary car,
+     * and the primary car cannot jump over a blocker, so the count drops by at most 1.
+     * 
+     * @return Always true
+     */
+    @Override
+    public boolean isConsistent() {
+        return true;
+    }
+    
     /**
      * Counts how many unique cars are blocking the path from the primary car to the exit.
      * 
@@ -57,12 +70,9 @@ public class BlockingCars implements Heuristic {
                     
                     if (chunk < state.occupied.length && (state.occupied[chunk] & (1L << bit)) != 0) {
                         // Found an occupied cell, find which car it is
-                        for (Car car : state.cars.values()) {
-                            if (car.id == 'P') continue; // Skip primary car
-                            
-                            if (chunk < car.bitmask.length && (car.bitmask[chunk] & (1L << bit)) != 0) {
-                                blockingCars.add(car.id);
-                            }
+                        Car car = state.carAt(idx);
+                        if (car != null && car.id != 'P') { // Skip primary car
+                            blockingCars.add(car.id);
                         }
                     }
                 }
@@ -75,12 +85,9 @@ public class BlockingCars implements Heuristic {
                     
                     if (chunk < state.occupied.length && (state.occupied[chunk] & (1L << bit)) != 0) {
                         // Found an occupied cell, find which car it is
-                        for (Car car : state.cars.values()) {
-                            if (car.id == 'P') continue; // Skip primary car
-                            
-                            if (chunk < car.bitmask.length && (car.bitmask[chunk] & (1L << bit)) != 0) {
-                                blockingCars.add(car.id);
-                            }
+                        Car car = state.carAt(idx);
+                        if (car != null && car.id != 'P') { // Skip primary car
+                            blockingCars.add(car.id);
                         }
                     }
                 }
@@ -105,12 +112,9 @@ public class BlockingCars implements Heuristic {
                     
                     if (chunk < state.occupied.length && (state.occupied[chunk] & (1L << bit)) != 0) {
                         // Found an occupied cell, find which car it is
-                        for (Car car : state.cars.values()) {
-                            if (car.id == 'P') continue; // Skip primary car
-                            
-                            if (chunk < car.bitmask.length && (car.bitmask[chunk] & (1L << bit)) != 0) {
-                                blockingCars.add(car.id);
-                            }
+                        Car car = state.carAt(idx);
+                        if (car != null && car.id != 'P') { // Skip primary car
+                            blockingCars.add(car.id);
                         }
                     }
                 }
@@ -123,12 +127,9 @@ public class BlockingCars implements Heuristic {
                     
                     if (chunk < state.occupied.length && (state.occupied[chunk] & (1L << bit)) != 0) {
                         // Found an occupied cell, find which car it is
-                        for (Car car : state.cars.values()) {
-                            if (car.id == 'P') continue; // Skip primary car
-                            
-                            if (chunk < car.bitmask.length && (car.bitmask[chunk] & (1L << bit)) != 0) {
-                                blockingCars.add(car.id);
-                            }
+                        Car car = state.carAt(idx);
+                        if (car != null && car.id != 'P') { // Skip primary car
+                            blockingCars.add(car.id);
                         }
                     }
                 }
@@ -137,4 +138,110 @@ public class BlockingCars implements Heuristic {
         
         return blockingCars.size();
     }
+    
+    /**
+     * Counts the blocking cars of a packed state from the car offsets alone.
+     * 
+     * @param board Board descriptor shared by all packed states
+     * @param state The packed state to evaluate
+     * @return Number of blocking cars or MAX_VALUE if the primary car's orientation is incompatible with the exit
+     */
+    @Override
+    public int calculate(Board board, PackedState state) {
+        if (!isCompatible(board)) return Integer.MAX_VALUE;
+        
+        int from = segmentStart(board, state);
+        int to = segmentEnd(board, state);
+        int count = 0;
+        for (int car = 0; car < board.carCount; car++) {
+            if (car != board.primaryIndex && blocks(board, car, state.offset(car), from, to)) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Adjusts the parent's count by the moved car only.
+     * A slide of P passes over empty cells and leaves its own cells empty, so
+     * it never changes which cars stand between P and the exit.
+     * 
+     * @param board Board descriptor shared by all packed states
+     * @param parent The state before the move
+     * @param parentH Value this heuristic returned for the parent
+     * @param child The state after the move
+     * @param car Index of the car that was moved
+     * @return Number of blocking cars or MAX_VALUE if the primary car's orientation is incompatible with the exit
+     */
+    @Override
+    public int update(Board board, PackedState parent, int parentH, PackedState child, int car) {
+        if (parentH == Integer.MAX_VALUE || car == board.primaryIndex) return parentH;
+        
+        int from = segmentStart(board, child);
+        int to = segmentEnd(board, child);
+        int before = blocks(board, car, parent.offset(car), from, to) ? 1 : 0;
+        int after = blocks(board, car, child.offset(car), from, to) ? 1 : 0;
+        return parentH - before + after;
+    }
+    
+    /**
+     * Checks whether the primary car can leave through the board's exit.
+     * 
+     * @param board Board descriptor
+     * @return True if P exists and is parallel to the exit direction
+     */
+    static boolean isCompatible(Board board) {
+        int p = board.primaryIndex;
+        if (p < 0) return false;
+        if (board.horizontal[p]) {
+            return "right".equals(board.exitDirection) || "left".equals(board.exitDirection);
+        }
+        return "top".equals(board.exitDirection) || "bottom".equals(board.exitDirection);
+    }
+    
+    /**
+     * Returns the first lane position of the cells between P and the exit.
+     * 
+     * @param board Board descriptor
+     * @param state Packed state
+     * @return First position along P's lane, inclusive
+     */
+    static int segmentStart(Board board, PackedState state) {
+        int p = board.primaryIndex;
+        boolean towardEnd = "right".equals(board.exitDirection) || "bottom".equals(board.exitDirection);
+        return towardEnd ? state.offset(p) + board.length[p] : 0;
+    }
+    
+    /**
+     * Returns the end of the lane positions between P and the exit.
+     * 
+     * @param board Board descriptor
+     * @param state Packed state
+     * @return Last position along P's lane, exclusive
+     */
+    static int segmentEnd(Board board, PackedState state) {
+        int p = board.primaryIndex;
+        boolean towardEnd = "right".equals(board.exitDirection) || "bottom".equals(board.exitDirection);
+        return towardEnd ? board.laneLength(p) : state.offset(p);
+    }
+    
+    /**
+     * Checks whether a car at an offset covers a cell between P and the exit.
+     * 
+     * @param board Board descriptor
+     * @param car Index of the car, not P
+     * @param offset Offset of the car along its lane
+     * @param from First position of the segment along P's lane, inclusive
+     * @param to Last position of the segment along P's lane, exclusive
+     * @return True if the car blocks P
+     */
+    static boolean blocks(Board board, int car, int offset, int from, int to) {
+        int p = board.primaryIndex;
+        if (board.horizontal[car] == board.horizontal[p]) {
+            // Sejajar dengan P: hanya menghalangi jika di lajur yang sama
+            return board.lane[car] == board.lane[p] && offset < to && offset + board.length[car] > from;
+        }
+        return board.lane[car] >= from && board.lane[car] < to
+            && board.lane[p] >= offset && board.lane[p] < offset + board.length[car];
+    }
 }
\ No newline at end of file
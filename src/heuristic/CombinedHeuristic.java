@@ -1,11 +1,15 @@
 package heuristic;
 
+import util.Board;
+import util.PackedState;
 import util.State;
 
 /**
  * Combined heuristic that considers both distance to exit and blocking cars.
  */
 public class CombinedHeuristic implements Heuristic {
+    private final Distance distance = new Distance();
+    private final BlockingCars blockingCars = new BlockingCars();
     
     /**
      * Returns the name of this heuristic function.
@@ -29,9 +33,6 @@ public class CombinedHeuristic implements Heuristic {
      */
     @Override
     public int calculate(State state, int width, int height, String exitDirection) {
-        Distance distance = new Distance();
-        BlockingCars blockingCars = new BlockingCars();
-        
         int distValue = distance.calculate(state, width, height, exitDirection);
         int blockingValue = blockingCars.calculate(state, width, height, exitDirection);
         
@@ -44,4 +45,45 @@ public class CombinedHeuristic implements Heuristic {
         // The multiplier can be adjusted for different behavior
         return distValue + (2 * blockingValue);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Calculates the combined value on a packed state without unpacking it.
+     * 
+     * @param board Board descriptor shared by all packed states
+     * @param state The packed state to evaluate
+     * @return Combined heuristic value or MAX_VALUE if state is invalid
+     */
+    @Override
+    public int calculate(Board board, PackedState state) {
+        int distValue = distance.calculate(board, state);
+        int blockingValue = blockingCars.calculate(board, state);
+        if (distValue == Integer.MAX_VALUE || blockingValue == Integer.MAX_VALUE) {
+            return Integer.MAX_VALUE;
+        }
+        return distValue + (2 * blockingValue);
+    }
+    
+    /**
+     * Updates the blocking part through {@link BlockingCars#update} and recomputes
+     * the distance part, which only reads the primary car.
+     * 
+     * @param board Board descriptor shared by all packed states
+     * @param parent The state before the move
+     * @param parentH Value this heuristic returned for the parent
+     * @param child The state after the move
+     * @param car Index of the car that was moved
+     * @return Combined heuristic value or MAX_VALUE if state is invalid
+     */
+    @Override
+    public int update(Board board, PackedState parent, int parentH, PackedState child, int car) {
+        if (parentH == Integer.MAX_VALUE) return calculate(board, child);
+        // Nilai blocking induk didapat kembali dari nilai gabungannya
+        int parentBlocking = (parentH - distance.calculate(board, parent)) / 2;
+        int blockingValue = blockingCars.update(board, parent, parentBlocking, child, car);
+        int distValue = distance.calculate(board, child);
+        if (distValue == Integer.MAX_VALUE || blockingValue == Integer.MAX_VALUE) {
+            return Integer.MAX_VALUE;
+        }
+        return distValue + (2 * blockingValue);
+    }
+}
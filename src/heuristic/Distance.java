@@ -1,6 +1,8 @@
 package heuristic;
 
+import util.Board;
 import util.Car;
+import util.PackedState;
 import util.State;
 
 /**
@@ -67,6 +69,36 @@ public class Distance implements Heuristic {
         }
     }
     
+    /**
+     * Calculates the distance to the exit edge directly from the primary car's offset.
+     * 
+     * @param board Board descriptor shared by all packed states
+     * @param state The packed state to evaluate
+     * @return Distance to exit or MAX_VALUE if car orientation is incompatible with exit
+     */
+    @Override
+    public int calculate(Board board, PackedState state) {
+        int p = board.primaryIndex;
+        if (p < 0) return Integer.MAX_VALUE;
+        
+        String exitDirection = board.exitDirection;
+        if (board.horizontal[p]) {
+            if (!("right".equals(exitDirection) || "left".equals(exitDirection))) {
+                return Integer.MAX_VALUE; // Incompatible exit direction
+            }
+        } else {
+            if (!("top".equals(exitDirection) || "bottom".equals(exitDirection))) {
+                return Integer.MAX_VALUE; // Incompatible exit direction
+            }
+        }
+        
+        int offset = state.offset(p);
+        if ("right".equals(exitDirection) || "bottom".equals(exitDirection)) {
+            return board.laneLength(p) - offset - board.length[p]; // Distance to right/bottom edge
+        }
+        return offset; // Distance to left/top edge
+    }
+    
     /**
      * Determines the leftmost column occupied by a car.
      * 
@@ -75,20 +107,7 @@ public class Distance implements Heuristic {
      * @return Index of the leftmost column
      */
     public static int findLeftmostColumn(Car car, int width) {
-        int leftmost = Integer.MAX_VALUE;
-        for (int chunk = 0; chunk < car.bitmask.length; chunk++) {
-            long bits = car.bitmask[chunk];
-            if (bits == 0) continue; // Skip if no bits set in this chunk
-            
-            for (int bit = 0; bit < 64; bit++) {
-                if ((bits & (1L << bit)) != 0) {
-                    int index = chunk * 64 + bit;
-                    int col = index % width;
-                    leftmost = Math.min(leftmost, col);
-                }
-            }
-        }
-        return leftmost;
+        return car.minColumn(width);
     }
     
     /**
@@ -99,20 +118,7 @@ public class Distance implements Heuristic {
      * @return Index of the rightmost column
      */
     public static int findRightmostColumn(Car car, int width) {
-        int rightmost = -1;
-        for (int chunk = 0; chunk < car.bitmask.length; chunk++) {
-            long bits = car.bitmask[chunk];
-            if (bits == 0) continue; // Skip if no bits set in this chunk
-            
-            for (int bit = 0; bit < 64; bit++) {
-                if ((bits & (1L << bit)) != 0) {
-                    int index = chunk * 64 + bit;
-                    int col = index % width;
-                    rightmost = Math.max(rightmost, col);
-                }
-            }
-        }
-        return rightmost;
+        return car.maxColumn(width);
     }
     
     /**
@@ -123,20 +129,7 @@ public class Distance implements Heuristic {
      * @return Index of the topmost row
      */
     public static int findTopmostRow(Car car, int width) {
-        int topmost = Integer.MAX_VALUE;
-        for (int chunk = 0; chunk < car.bitmask.length; chunk++) {
-            long bits = car.bitmask[chunk];
-            if (bits == 0) continue; // Skip if no bits set in this chunk
-            
-            for (int bit = 0; bit < 64; bit++) {
-                if ((bits & (1L << bit)) != 0) {
-                    int index = chunk * 64 + bit;
-                    int row = index / width;
-                    topmost = Math.min(topmost, row);
-                }
-            }
-        }
-        return topmost;
+        return car.minRow(width);
     }
     
     /**
@@ -147,19 +140,6 @@ public class Distance implements Heuristic {
      * @return Index of the bottommost row
      */
     public static int findBottommostRow(Car car, int width) {
-        int bottommost = -1;
-        for (int chunk = 0; chunk < car.bitmask.length; chunk++) {
-            long bits = car.bitmask[chunk];
-            if (bits == 0) continue; // Skip if no bits set in this chunk
-            
-            for (int bit = 0; bit < 64; bit++) {
-                if ((bits & (1L << bit)) != 0) {
-                    int index = chunk * 64 + bit;
-                    int row = index / width;
-                    bottommost = Math.max(bottommost, row);
-                }
-            }
-        }
-        return bottommost;
+        return car.maxRow(width);
     }
 }
\ No newline at end of file
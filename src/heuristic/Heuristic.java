@@ -1,5 +1,7 @@
 package heuristic;
 
+import util.Board;
+import util.PackedState;
 import util.State;
 
 /* 
@@ -21,6 +23,47 @@ public interface Heuristic {
      */
     int calculate(State state, int width, int height, String exitDirection);
     
+    /**
+     * Calculates the heuristic value for a packed state.
+     * The default implementation unpacks the state and delegates to
+     * {@link #calculate(State, int, int, String)}.
+     * 
+     * @param board Board descriptor shared by all packed states
+     * @param state The packed state to evaluate
+     * @return An estimate of the cost from the current state to the goal
+     */
+    default int calculate(Board board, PackedState state) {
+        return calculate(board.unpack(state), board.width, board.height, board.exitDirection);
+    }
+    
+    /**
+     * Calculates the heuristic value of a successor from the value of its parent.
+     * The two states differ only by the slide of one car, so a heuristic that reads
+     * a few lanes can adjust the parent's value instead of scanning the whole board.
+     * The default implementation evaluates the successor from scratch.
+     * 
+     * @param board Board descriptor shared by all packed states
+     * @param parent The state before the move
+     * @param parentH Value this heuristic returned for the parent
+     * @param child The state after the move
+     * @param car Index of the car that was moved
+     * @return An estimate of the cost from the successor to the goal
+     */
+    default int update(Board board, PackedState parent, int parentH, PackedState child, int car) {
+        return calculate(board, child);
+    }
+    
+    /**
+     * Tells whether the heuristic is consistent, i.e. h(s) <= 1 + h(s') for every move
+     * s -> s' and 0 at the goal. Only then A* never has to re-open an expanded state,
+     * which closed sets without costs such as a bitset rely on.
+     * 
+     * @return True if the heuristic is known to be consistent
+     */
+    default boolean isConsistent() {
+        return false;
+    }
+    
     /**
      * Returns the name of the heuristic.
      * 
@@ -1,7 +1,9 @@
 package heuristic;
 
 import java.util.*;
+import util.Board;
 import util.Car;
+import util.PackedState;
 import util.State;
 
 /**
@@ -83,6 +85,68 @@ public class MobilityScore implements Heuristic {
         return distanceValue + (expectedMaxCars - (totalAvailableMoves / 2));
     }
     
+    /**
+     * Calculates the same mobility score for a packed state.
+     * The free cells on both sides of each car are counted along its lane
+     * in the occupancy bitboard, so no car map is built.
+     * 
+     * @param board Board descriptor shared by all packed states
+     * @param state The packed state to evaluate
+     * @return Heuristic value based on car mobility or MAX_VALUE if incompatible with exit
+     */
+    @Override
+    public int calculate(Board board, PackedState state) {
+        int p = board.primaryIndex;
+        if (p < 0) return Integer.MAX_VALUE;
+        
+        String exitDirection = board.exitDirection;
+        boolean isExitCompatible = board.horizontal[p] ?
+            "right".equals(exitDirection) || "left".equals(exitDirection) :
+            "top".equals(exitDirection) || "bottom".equals(exitDirection);
+        if (!isExitCompatible) return Integer.MAX_VALUE;
+        
+        long[] occupied = board.occupancy(state);
+        int totalAvailableMoves = 0;
+        int primaryCarMoves = 0;
+        for (int car = 0; car < board.carCount; car++) {
+            int moveCount = countPossibleMoves(board, occupied, car, state.offset(car));
+            if (car == p) {
+                primaryCarMoves = moveCount;
+            }
+            totalAvailableMoves += moveCount;
+        }
+        
+        int offset = state.offset(p);
+        int distanceValue = "right".equals(exitDirection) || "bottom".equals(exitDirection) ?
+            board.laneLength(p) - offset - board.length[p] : offset;
+        
+        int expectedMaxCars = 12;
+        if (primaryCarMoves == 0) {
+            return distanceValue + expectedMaxCars * 2;
+        }
+        return distanceValue + (expectedMaxCars - (totalAvailableMoves / 2));
+    }
+    
+    /**
+     * Counts the free cells in front of and behind a car along its lane.
+     * 
+     * @param board Board descriptor
+     * @param occupied Occupancy bitboard of the state
+     * @param car Index of the car
+     * @param offset Offset of the car along its lane
+     * @return Number of possible moves the car can make
+     */
+    private int countPossibleMoves(Board board, long[] occupied, int car, int offset) {
+        int moveCount = 0;
+        for (int lo = offset - 1; lo >= 0 && !Board.isSet(occupied, board.headCell(car, lo)); lo--) {
+            moveCount++;
+        }
+        for (int lo = offset + board.length[car]; lo < board.laneLength(car) && !Board.isSet(occupied, board.headCell(car, lo)); lo++) {
+            moveCount++;
+        }
+        return moveCount;
+    }
+    
     /**
      * Counts how many possible moves a car can make in its current position.
      * For horizontal cars, checks left and right movements.
@@ -98,8 +162,10 @@ public class MobilityScore implements Heuristic {
         int moveCount = 0;
         
         if (car.isHorizontal) {
+            int leftmostCol = Distance.findLeftmostColumn(car, width);
+            int rightmostCol = Distance.findRightmostColumn(car, width);
+            
             for (int offset = 1; ; offset++) {
-                int leftmostCol = Distance.findLeftmostColumn(car, width);
                 int checkCol = leftmostCol - offset;
                 
                 if (checkCol < 0) break;
@@ -118,7 +184,6 @@ public class MobilityScore implements Heuristic {
             
             // Check right
             for (int offset = 1; ; offset++) {
-                int rightmostCol = Distance.findRightmostColumn(car, width);
                 int checkCol = rightmostCol + offset;
                 
                 if (checkCol >= width) break;
@@ -136,8 +201,10 @@ public class MobilityScore implements Heuristic {
             }
         } 
         else {
+            int topmostRow = Distance.findTopmostRow(car, width);
+            int bottommostRow = Distance.findBottommostRow(car, width);
+            
             for (int offset = 1; ; offset++) {
-                int topmostRow = Distance.findTopmostRow(car, width);
                 int checkRow = topmostRow - offset;
                 
                 if (checkRow < 0) break;
@@ -156,7 +223,6 @@ public class MobilityScore implements Heuristic {
             
             // Check down
             for (int offset = 1; ; offset++) {
-                int bottommostRow = Distance.findBottommostRow(car, width);
                 int checkRow = bottommostRow + offset;
                 
                 if (checkRow >= height) break; // Off the board
@@ -0,0 +1,398 @@
+package heuristic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import util.Board;
+import util.PackedState;
+import util.State;
+
+/**
+ * Heuristic backed by pattern databases.
+ * A pattern is the primary car plus a few other cars; all remaining cars are
+ * removed from the board. The abstract puzzle is solved exhaustively by a backward
+ * breadth-first search from every abstract goal, and the exact abstract distances
+ * are stored in a byte array indexed by the pattern cars' offsets (mixed radix).
+ * Removing cars only makes the puzzle easier, so every lookup is a lower bound.
+ * <p>
+ * Each pattern holds one car that can block P's exit lane and the cars that
+ * currently block that car. Patterns never share a car besides P. In additive mode
+ * a pattern counts only the moves of its own cars (P moves for free), so the sum
+ * over patterns stays admissible; in max mode every move counts and the largest
+ * pattern value is used. Tables are built on the first call for a board.
+ */
+public class PatternDatabase implements Heuristic {
+    private static final int DEFAULT_PATTERN_SIZE = 4;
+    private static final long MAX_PATTERN_ENTRIES = 1L << 24;
+    private static final byte UNKNOWN = (byte) 0xFF;
+
+    private final int patternSize;
+    private final boolean additive;
+    private volatile Tables tables; // Dibangun sekali per papan, dibagi antar thread
+
+    /**
+     * Creates an additive pattern database with up to four cars besides P per pattern.
+     */
+    public PatternDatabase() {
+        this(DEFAULT_PATTERN_SIZE, true);
+    }
+
+    /**
+     * Creates a pattern database.
+     *
+     * @param patternSize Maximum number of cars besides P in one pattern
+     * @param additive True to add the patterns, false to take their maximum
+     */
+    public PatternDatabase(int patternSize, boolean additive) {
+        this.patternSize = Math.max(1, patternSize);
+        this.additive = additive;
+    }
+
+    /**
+     * Returns the name of this heuristic function.
+     *
+     * @return String name of the heuristic
+     */
+    @Override
+    public String getName() {
+        return additive ? "Pattern Database (additive)" : "Pattern Database (max)";
+    }
+
+    /**
+     * Each table holds exact abstract distances and moves are reversible, so one move
+     * changes a pattern value by at most its own cost. In additive mode every move is
+     * charged to at most one pattern, and the maximum of consistent values is consistent.
+     *
+     * @return Always true
+     */
+    @Override
+    public boolean isConsistent() {
+        return true;
+    }
+
+    /**
+     * Looks up a state by building a board for it first.
+     *
+     * @param state The current puzzle state
+     * @param width Width of the puzzle grid
+     * @param height Height of the puzzle grid
+     * @param exitDirection Direction of the exit ("left", "right", "top", "bottom")
+     * @return Pattern database value or MAX_VALUE if car orientation is incompatible with exit
+     */
+    @Override
+    public int calculate(State state, int width, int height, String exitDirection) {
+        Board board = new Board(state, width, height, 0, 0, exitDirection);
+        return calculate(board, board.pack(state));
+    }
+
+    /**
+     * Combines the abstract distances of all patterns for a packed state.
+     *
+     * @param board Board descriptor shared by all packed states
+     * @param state The packed state to evaluate
+     * @return Pattern database value or MAX_VALUE if car orientation is incompatible with exit
+     */
+    @Override
+    public int calculate(Board board, PackedState state) {
+        int p = board.primaryIndex;
+        if (p < 0) return Integer.MAX_VALUE;
+        String exitDirection = board.exitDirection;
+        if (board.horizontal[p]) {
+            if (!("right".equals(exitDirection) || "left".equals(exitDirection))) {
+                return Integer.MAX_VALUE; // Incompatible exit direction
+            }
+        } else {
+            if (!("top".equals(exitDirection) || "bottom".equals(exitDirection))) {
+                return Integer.MAX_VALUE; // Incompatible exit direction
+            }
+        }
+
+        int total = 0;
+        for (Pattern pattern : tablesFor(board, state).patterns) {
+            int value = pattern.lookup(state);
+            total = additive ? total + value : Math.max(total, value);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the tables for a board, building them if the board has a different layout.
+     *
+     * @param board Board descriptor
+     * @param state State used to pick the patterns if the tables must be built
+     * @return Tables for the board
+     */
+    private Tables tablesFor(Board board, PackedState state) {
+        Tables current = tables;
+        if (current != null && current.matches(board)) return current;
+        synchronized (this) {
+            current = tables;
+            if (current == null || !current.matches(board)) {
+                current = new Tables(board, choosePatterns(board, state));
+                tables = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Picks disjoint groups of cars: every car that can block the lane between P and
+     * the exit starts a group, followed by the cars that currently stand in its lane.
+     *
+     * @param board Board descriptor
+     * @param state State whose car positions decide the grouping
+     * @return Groups of car indices, P not included
+     */
+    private List<int[]> choosePatterns(Board board, PackedState state) {
+        int p = board.primaryIndex;
+        boolean towardEnd = "right".equals(board.exitDirection) || "bottom".equals(board.exitDirection);
+        int from = towardEnd ? state.offset(p) + board.length[p] : 0;
+        int to = towardEnd ? board.laneLength(p) : state.offset(p);
+
+        boolean[] used = new boolean[board.carCount];
+        used[p] = true;
+        List<int[]> groups = new ArrayList<>();
+        for (int car = 0; car < board.carCount; car++) {
+            // Mobil tegak lurus P yang lajurnya memotong jalur keluar
+            if (used[car] || board.horizontal[car] == board.horizontal[p]) continue;
+            if (board.lane[car] < from || board.lane[car] >= to) continue;
+
+            List<Integer> group = new ArrayList<>();
+            group.add(car);
+            used[car] = true;
+            long[] lane = board.laneMask(car);
+            for (int other = 0; other < board.carCount && group.size() < patternSize; other++) {
+                if (used[other] || board.horizontal[other] != board.horizontal[p]) continue;
+                long[] placed = board.placementMask(other, state.offset(other));
+                for (int c = 0; c < board.chunkCount; c++) {
+                    if ((placed[c] & lane[c]) != 0) {
+                        group.add(other);
+                        used[other] = true;
+                        break;
+                    }
+                }
+            }
+            groups.add(group.stream().mapToInt(Integer::intValue).toArray());
+        }
+        return groups;
+    }
+
+    /**
+     * All pattern tables of one board.
+     */
+    private class Tables {
+        final Board board;
+        final Pattern[] patterns;
+
+        /**
+         * Builds one table per group of cars.
+         *
+         * @param board Board descriptor
+         * @param groups Groups of car indices, P not included
+         */
+        Tables(Board board, List<int[]> groups) {
+            this.board = board;
+            this.patterns = new Pattern[groups.size()];
+            for (int i = 0; i < patterns.length; i++) {
+                patterns[i] = new Pattern(board, groups.get(i));
+            }
+        }
+
+        /**
+         * Checks whether another board describes the same puzzle layout.
+         *
+         * @param other Board to compare with
+         * @return True if the tables can be used for that board
+         */
+        boolean matches(Board other) {
+            return other == board || other.width == board.width && other.height == board.height
+                && other.exitDirection.equals(board.exitDirection)
+                && Arrays.equals(other.ids, board.ids) && Arrays.equals(other.lane, board.lane)
+                && Arrays.equals(other.length, board.length) && Arrays.equals(other.horizontal, board.horizontal);
+        }
+    }
+
+    /**
+     * Exact distance table of one abstract puzzle: P plus a group of cars.
+     */
+    private class Pattern {
+        final Board board;
+        final int[] cars; // cars[0] adalah P
+        final int[] positions;
+        final long[] multiplier;
+        final byte[] distances;
+
+        /**
+         * Builds the table, dropping cars from the end of the group until it fits.
+         *
+         * @param board Board descriptor
+         * @param group Car indices besides P
+         */
+        Pattern(Board board, int[] group) {
+            this.board = board;
+            int count = group.length + 1;
+            long size;
+            while (true) {
+                size = 1;
+                for (int i = 0; i < count; i++) {
+                    int car = i == 0 ? board.primaryIndex : group[i - 1];
+                    size *= board.laneLength(car) - board.length[car] + 1;
+                }
+                if (size <= MAX_PATTERN_ENTRIES || count == 1) break;
+                count--;
+            }
+
+            this.cars = new int[count];
+            this.positions = new int[count];
+            this.multiplier = new long[count];
+            long weight = 1;
+            for (int i = 0; i < count; i++) {
+                cars[i] = i == 0 ? board.primaryIndex : group[i - 1];
+                positions[i] = board.laneLength(cars[i]) - board.length[cars[i]] + 1;
+                multiplier[i] = weight;
+                weight *= positions[i];
+            }
+            this.distances = new byte[(int) size];
+            Arrays.fill(distances, UNKNOWN);
+            solve();
+        }
+
+        /**
+         * Returns the abstract distance of a state.
+         *
+         * @param state Packed state
+         * @return Abstract distance, 0 if the abstract goal cannot be reached
+         */
+        int lookup(PackedState state) {
+            long rank = 0;
+            for (int i = 0; i < cars.length; i++) {
+                rank += state.offset(cars[i]) * multiplier[i];
+            }
+            int distance = distances[(int) rank] & 0xFF;
+            return distance == (UNKNOWN & 0xFF) ? 0 : distance;
+        }
+
+        /**
+         * Backward breadth-first search from every abstract goal.
+         * Moves of P cost 0 in additive mode, so each layer is first closed under
+         * free moves before the next layer starts.
+         */
+        private void solve() {
+            int[] offsets = new int[cars.length];
+            long[] occupied = new long[board.chunkCount];
+            int[] layer = new int[1024];
+            int layerSize = 0;
+            for (int rank = 0; rank < distances.length; rank++) {
+                decode(rank, offsets, occupied);
+                if (isValid(offsets) && isGoal(offsets, occupied)) {
+                    distances[rank] = 0;
+                    if (layerSize == layer.length) layer = Arrays.copyOf(layer, layerSize * 2);
+                    layer[layerSize++] = rank;
+                }
+            }
+
+            int[] next = new int[1024];
+            for (int depth = 0; layerSize > 0; depth++) {
+                if (depth + 1 >= (UNKNOWN & 0xFF)) break; // Lebih jauh dari itu dianggap tidak diketahui
+                int nextSize = 0;
+                for (int head = 0; head < layerSize; head++) {
+                    int rank = layer[head];
+                    if ((distances[rank] & 0xFF) != depth) continue; // Sudah diperbaiki lewat langkah gratis
+                    decode(rank, offsets, occupied);
+                    for (int i = 0; i < cars.length; i++) {
+                        boolean free = additive && i == 0;
+                        for (int dir = -1; dir <= 1; dir += 2) {
+                            for (int o = offsets[i] + dir; o >= 0 && o < positions[i] && isFree(i, o, dir, occupied); o += dir) {
+                                int neighbour = (int) (rank + (o - offsets[i]) * multiplier[i]);
+                                int known = distances[neighbour] & 0xFF;
+                                int distance = free ? depth : depth + 1;
+                                if (known != (UNKNOWN & 0xFF) && known <= distance) continue;
+                                distances[neighbour] = (byte) distance;
+                                if (free) {
+                                    if (layerSize == layer.length) layer = Arrays.copyOf(layer, layerSize * 2);
+                                    layer[layerSize++] = neighbour;
+                                } else {
+                                    if (nextSize == next.length) next = Arrays.copyOf(next, nextSize * 2);
+                                    next[nextSize++] = neighbour;
+                                }
+                            }
+                        }
+                    }
+                }
+                int[] swap = layer;
+                layer = next;
+                next = swap;
+                layerSize = nextSize;
+            }
+        }
+
+        /**
+         * Writes the offsets and the occupied cells of a rank.
+         *
+         * @param rank Rank in the table
+         * @param offsets Output offsets, indexed like {@link #cars}
+         * @param occupied Output occupancy of the pattern cars
+         */
+        private void decode(int rank, int[] offsets, long[] occupied) {
+            Arrays.fill(occupied, 0);
+            for (int i = 0; i < cars.length; i++) {
+                offsets[i] = (int) (rank / multiplier[i] % positions[i]);
+                long[] mask = board.placementMask(cars[i], offsets[i]);
+                for (int c = 0; c < occupied.length; c++) {
+                    occupied[c] |= mask[c];
+                }
+            }
+        }
+
+        /**
+         * Checks that no two pattern cars overlap.
+         *
+         * @param offsets Offsets of the pattern cars
+         * @return True if the placement is legal
+         */
+        private boolean isValid(int[] offsets) {
+            long[] occupied = new long[board.chunkCount];
+            for (int i = 0; i < cars.length; i++) {
+                long[] mask = board.placementMask(cars[i], offsets[i]);
+                for (int c = 0; c < occupied.length; c++) {
+                    if ((occupied[c] & mask[c]) != 0) return false;
+                    occupied[c] |= mask[c];
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Checks whether the lane between P and the exit is free of pattern cars.
+         *
+         * @param offsets Offsets of the pattern cars
+         * @param occupied Occupancy of the pattern cars
+         * @return True for an abstract goal
+         */
+        private boolean isGoal(int[] offsets, long[] occupied) {
+            int p = cars[0];
+            boolean towardEnd = "right".equals(board.exitDirection) || "bottom".equals(board.exitDirection);
+            int from = towardEnd ? offsets[0] + board.length[p] : 0;
+            int to = towardEnd ? board.laneLength(p) : offsets[0];
+            for (int o = from; o < to; o++) {
+                if (Board.isSet(occupied, board.headCell(p, o))) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Checks whether a pattern car can slide one more cell to an offset.
+         *
+         * @param i Index in {@link #cars}
+         * @param offset Offset after the slide
+         * @param dir -1 for left or up, 1 for right or down
+         * @param occupied Occupancy before the move
+         * @return True if the cell entered by the car is free
+         */
+        private boolean isFree(int i, int offset, int dir, long[] occupied) {
+            int car = cars[i];
+            int cell = dir < 0 ? board.headCell(car, offset) : board.headCell(car, offset + board.length[car] - 1);
+            return !Board.isSet(occupied, cell);
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package pathfinding;
+
+import java.util.*;
+import java.util.function.Consumer;
+import util.Board;
+import util.PackedState;
+import util.State;
+import util.StateTable;
+import heuristic.Heuristic;
+
+/**
+ * Anytime Repairing A* (ARA*).
+ * Starts as weighted A* with f = g + w * h and a large weight, which finds a first
+ * solution quickly. The weight is then lowered step by step; every iteration reuses
+ * the costs and open list of the previous one and only re-opens states whose cost
+ * improved. Each better solution is published as soon as it is found. The search
+ * stops when the weight reaches 1 and the open list is exhausted, which proves the
+ * last solution optimal, or when the deadline passes.
+ */
+public class ARAStar {
+    private static final int DEADLINE_CHECK_INTERVAL = 256; // Cek waktu setiap sekian ekspansi
+
+    private int width, height;
+    private int kRow, kCol;
+    private String exitDirection;
+    private Heuristic heuristic;
+    private double initialWeight;
+    private double weightStep;
+    private long timeLimitMillis; // 0 berarti tanpa batas waktu
+    private Consumer<State> solutionListener;
+
+    private Board board;
+    private double weight;
+    private PriorityQueue<PackedState> open;
+    private StateTable costMap; // Maps state to lowest cost found
+    private StateTable closed; // Expanded in the current iteration
+    private List<PackedState> incons; // Membaik setelah di-expand, dibuka lagi di iterasi berikut
+    private PackedState incumbent;
+    private double bound;
+    private int visitedNodeCount;
+    private int heuristicEvaluationCount;
+    private int solutionCount;
+
+    /**
+     * Constructs an ARA* solver with specified parameters.
+     *
+     * @param width Width of the puzzle grid
+     * @param height Height of the puzzle grid
+     * @param kRow Row position of the exit
+     * @param kCol Column position of the exit
+     * @param exitDirection Direction of the exit path
+     * @param heuristic Heuristic function to use for evaluation
+     * @param initialWeight Weight on h for the first iteration, at least 1
+     * @param weightStep Amount the weight is lowered after each iteration
+     * @param timeLimitMillis Time limit in milliseconds, 0 for no limit
+     */
+    public ARAStar(int width, int height, int kRow, int kCol, String exitDirection, Heuristic heuristic,
+                   double initialWeight, double weightStep, long timeLimitMillis) {
+        this.width = width;
+        this.height = height;
+        this.kRow = kRow;
+        this.kCol = kCol;
+        this.exitDirection = exitDirection;
+        this.heuristic = heuristic;
+        this.initialWeight = Math.max(1.0, initialWeight);
+        this.weightStep = weightStep > 0 ? weightStep : 0.5;
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    /**
+     * Registers a callback that receives every improved solution as soon as it is found.
+     *
+     * @param solutionListener Callback taking the goal state of the new solution, may be null
+     */
+    public void setSolutionListener(Consumer<State> solutionListener) {
+        this.solutionListener = solutionListener;
+    }
+
+    /**
+     * Finds progressively better paths from the initial state to the goal state.
+     *
+     * @param initialState The starting state of the puzzle
+     * @return The best goal state found before the search ended, or null if none was found
+     */
+    public State find(State initialState) {
+        long deadline = timeLimitMillis > 0 ? System.currentTimeMillis() + timeLimitMillis : Long.MAX_VALUE;
+        board = new Board(initialState, width, height, kRow, kCol, exitDirection);
+        PackedState root = board.pack(initialState);
+        costMap = new StateTable(board);
+        incons = new ArrayList<>();
+        incumbent = null;
+        bound = Double.POSITIVE_INFINITY;
+        visitedNodeCount = 0;
+        heuristicEvaluationCount = 0;
+        solutionCount = 0;
+
+        weight = initialWeight;
+        open = newOpenList();
+        evaluate(root, null);
+        costMap.put(root, root.cost);
+        open.add(root);
+
+        System.out.println("Using ARA* with heuristic: " + heuristic.getName());
+
+        while (true) {
+            closed = new StateTable(board);
+            boolean completed = improvePath(deadline);
+            if (!completed) {
+                bound = suboptimalityBound();
+                System.out.println("Time limit reached at weight " + weight);
+                break;
+            }
+
+            bound = Math.min(weight, suboptimalityBound());
+            if (incumbent != null) {
+                System.out.println("Weight " + weight + " done, solution is within factor " + bound + " of optimal");
+            }
+            if (weight <= 1.0 || open.isEmpty() && incons.isEmpty()) {
+                break;
+            }
+
+            // Turunkan bobot, buka lagi state yang tidak konsisten, dan susun ulang open list
+            weight = Math.max(1.0, weight - weightStep);
+            PriorityQueue<PackedState> reordered = newOpenList();
+            reordered.addAll(open);
+            reordered.addAll(incons);
+            open = reordered;
+            incons.clear();
+        }
+
+        System.out.println("Visited nodes: " + visitedNodeCount);
+        System.out.println("Heuristic evaluations: " + heuristicEvaluationCount);
+        if (incumbent == null) {
+            System.out.println("Goal state not reachable after exploring " + visitedNodeCount + " nodes.");
+            return null;
+        }
+        System.out.println("Total cost (steps): " + incumbent.cost);
+        return board.unpackPath(incumbent);
+    }
+
+    /**
+     * Returns the count of nodes visited during the search.
+     *
+     * @return The number of visited nodes
+     */
+    public int getVisitedNodeCount() {
+        return visitedNodeCount;
+    }
+
+    /**
+     * Returns the number of heuristic evaluations during the search.
+     *
+     * @return The count of heuristic evaluations
+     */
+    public int getHeuristicEvaluationCount() {
+        return heuristicEvaluationCount;
+    }
+
+    /**
+     * Returns how many improved solutions were published.
+     *
+     * @return Number of solutions found
+     */
+    public int getSolutionCount() {
+        return solutionCount;
+    }
+
+    /**
+     * Returns the proven suboptimality factor of the returned solution.
+     *
+     * @return 1.0 if the solution is optimal (for an admissible heuristic), larger otherwise
+     */
+    public double getBound() {
+        return bound;
+    }
+
+    /**
+     * Expands states in order of g + w * h until no open state can lead to a
+     * solution better than the incumbent.
+     *
+     * @param deadline Time in milliseconds at which the search must stop
+     * @return True if the iteration finished, false if the deadline passed
+     */
+    private boolean improvePath(long deadline) {
+        Board.MoveCursor cursor = board.newCursor();
+        int expansions = 0;
+        while (!open.isEmpty()) {
+            PackedState current = open.peek();
+            if (incumbent != null && key(current) >= incumbent.cost) {
+                return true;
+            }
+            open.poll();
+
+            int bestCost = costMap.get(current);
+            if (bestCost != StateTable.NOT_FOUND && bestCost < current.cost) {
+                continue;
+            }
+            if (closed.contains(current)) {
+                continue;
+            }
+            if (++expansions % DEADLINE_CHECK_INTERVAL == 0 && System.currentTimeMillis() > deadline) {
+                open.add(current);
+                return false;
+            }
+            closed.put(current, current.cost);
+            visitedNodeCount++;
+
+            if (board.isReached(current)) {
+                publish(current);
+                continue;
+            }
+
+            int nextCost = current.cost + 1;
+            cursor.reset(current);
+            while (cursor.next()) {
+                int successorCost = costMap.get(cursor);
+                if (successorCost != StateTable.NOT_FOUND && nextCost >= successorCost) {
+                    continue;
+                }
+                PackedState successor = cursor.materialize();
+                costMap.put(successor, successor.cost);
+                evaluate(successor, current);
+                if (incumbent != null && successor.f >= incumbent.cost) {
+                    continue; // Tidak mungkin lebih baik dari solusi sekarang
+                }
+                if (closed.contains(successor)) {
+                    incons.add(successor);
+                } else {
+                    open.add(successor);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records a goal state if it improves on the incumbent and notifies the listener.
+     *
+     * @param goal Goal state that was reached
+     */
+    private void publish(PackedState goal) {
+        if (incumbent != null && goal.cost >= incumbent.cost) return;
+        incumbent = goal;
+        solutionCount++;
+        System.out.println("Solution " + solutionCount + " found with cost " + goal.cost + " at weight " + weight);
+        if (solutionListener != null) {
+            solutionListener.accept(board.unpackPath(goal));
+        }
+    }
+
+    /**
+     * Computes how far the incumbent can be from optimal:
+     * its cost divided by the lowest g + h among all states that are still open.
+     *
+     * @return Suboptimality factor, infinite if there is no solution yet
+     */
+    private double suboptimalityBound() {
+        if (incumbent == null) return Double.POSITIVE_INFINITY;
+        int lowest = incumbent.cost;
+        for (PackedState state : open) {
+            if (costMap.get(state) == state.cost) lowest = Math.min(lowest, state.f);
+        }
+        for (PackedState state : incons) {
+            if (costMap.get(state) == state.cost) lowest = Math.min(lowest, state.f);
+        }
+        return lowest <= 0 ? 1.0 : Math.max(1.0, (double) incumbent.cost / lowest);
+    }
+
+    /**
+     * Calculates the heuristic value for the given state and caches h and f on it.
+     * A successor is evaluated from its parent's value, see {@link Heuristic#update}.
+     *
+     * @param state The state to evaluate
+     * @param parent The state it was generated from, or null for the initial state
+     */
+    private void evaluate(PackedState state, PackedState parent) {
+        heuristicEvaluationCount++;
+        state.h = parent == null ? heuristic.calculate(board, state)
+            : heuristic.update(board, parent, parent.h, state, state.moveCar);
+        state.f = state.cost + state.h;
+    }
+
+    /**
+     * Returns the priority of a state under the current weight.
+     *
+     * @param state State with a cached heuristic value
+     * @return g + w * h
+     */
+    private double key(PackedState state) {
+        return state.cost + weight * state.h;
+    }
+
+    /**
+     * Creates an empty open list ordered by the current weighted key, ties broken by lower h.
+     *
+     * @return Empty priority queue
+     */
+    private PriorityQueue<PackedState> newOpenList() {
+        return new PriorityQueue<>((s1, s2) -> {
+            int byKey = Double.compare(key(s1), key(s2));
+            return byKey != 0 ? byKey : Integer.compare(s1.h, s2.h);
+        });
+    }
+}
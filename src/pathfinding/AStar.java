@@ -2,8 +2,13 @@ package pathfinding;
 
 import java.util.*;
 
+import util.Board;
 import util.BoardPrinter;
+import util.PackedState;
+import util.PathStore;
 import util.State;
+import util.StateBitset;
+import util.StateTable;
 import heuristic.Heuristic;
 import heuristic.Distance;
 
@@ -15,13 +20,20 @@ Menuju terang dalam kegelapan.
 */
 
 public class AStar {
-    private PriorityQueue<State> queue;
-    private Map<String, Integer> costMap; 
+    private Queue<PackedState> queue;
+    private StateTable costMap; // Maps state to lowest cost found
+    private StateBitset closed; // Dipakai sebagai ganti costMap jika bitsetVisited aktif
     private int width, height;
     private int kRow, kCol;
     private String exitDirection;
     private Heuristic heuristic;
+    private Board board;
     private int visitedNodeCount; // Add field to store visited node count
+    private boolean compactPath; // Simpan pohon pencarian di PathStore
+    private boolean bitsetVisited;
+    private long memoryBudget; // Dalam byte, 0 berarti tidak dibatasi
+    private String finishedMode;
+    private int heuristicEvaluationCount;
     
     /**
      * Constructs an A* search solver with specified parameters.
@@ -34,6 +46,21 @@ public class AStar {
      * @param heuristic Heuristic function to use for evaluation
      */
     public AStar(int width, int height, int kRow, int kCol, String exitDirection, Heuristic heuristic) {
+        this(width, height, kRow, kCol, exitDirection, heuristic, false);
+    }
+    
+    /**
+     * Constructs an A* search solver with a choice of open list.
+     * 
+     * @param width Width of the puzzle grid
+     * @param height Height of the puzzle grid
+     * @param kRow Row position of the exit
+     * @param kCol Column position of the exit
+     * @param exitDirection Direction of the exit path
+     * @param heuristic Heuristic function to use for evaluation
+     * @param useBucketQueue True to use a {@link BucketQueue} instead of a binary heap
+     */
+    public AStar(int width, int height, int kRow, int kCol, String exitDirection, Heuristic heuristic, boolean useBucketQueue) {
         this.width = width;
         this.height = height;
         this.kRow = kRow;
@@ -42,12 +69,57 @@ public class AStar {
         this.heuristic = heuristic;
         this.visitedNodeCount = 0; // Initialize counter
         
-        this.queue = new PriorityQueue<>((s1, s2) -> {
-            int f1 = s1.cost + calculateHeuristic(s1);
-            int f2 = s2.cost + calculateHeuristic(s2);
-            return Integer.compare(f1, f2);
-        });
-        this.costMap = new HashMap<>();
+        if (useBucketQueue) {
+            this.queue = new BucketQueue();
+        } else {
+            // Order on the f-value stored in each node, never re-evaluating the heuristic
+            this.queue = new PriorityQueue<>((s1, s2) -> Integer.compare(s1.f, s2.f));
+        }
+    }
+    
+    /**
+     * Chooses how the search tree is kept.
+     * With a compact path store, nodes hold only a parent index and a packed move,
+     * and the solution is replayed from the initial state afterwards.
+     * 
+     * @param compactPath True to use a {@link PathStore} instead of parent references
+     */
+    public void setCompactPath(boolean compactPath) {
+        this.compactPath = compactPath;
+    }
+    
+    /**
+     * Chooses how expanded states are remembered.
+     * With a bitset, each state is ranked into a dense index and marked with one bit
+     * when it is expanded. States are never re-opened, so the result is optimal only
+     * for a consistent heuristic (see {@link Heuristic#isConsistent()}); with any other
+     * heuristic a warning is printed and the path found may be longer than the optimum.
+     * Boards whose bitset does not fit in the heap fall back to the hash table.
+     * 
+     * @param bitsetVisited True to use a {@link StateBitset} closed set instead of a {@link StateTable}
+     */
+    public void setBitsetVisited(boolean bitsetVisited) {
+        this.bitsetVisited = bitsetVisited;
+    }
+    
+    /**
+     * Limits the memory used by the open and closed lists.
+     * When the estimated size of the stored states reaches the budget, the search
+     * drops them and continues with IDA*, starting at the lowest f-value still open.
+     * 
+     * @param memoryBudget Budget in bytes, 0 for no limit
+     */
+    public void setMemoryBudget(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+    
+    /**
+     * Returns which search finished the last call to {@link #find}.
+     * 
+     * @return "A*", or "IDA*" if the memory budget forced the fallback
+     */
+    public String getFinishedMode() {
+        return finishedMode;
     }
     
     /**
@@ -60,55 +132,109 @@ public class AStar {
     }
     
     /**
-     * Calculates the heuristic value for the given state.
+     * Returns the number of heuristic evaluations during the search.
+     * 
+     * @return The count of heuristic evaluations
+     */
+    public int getHeuristicEvaluationCount() {
+        return heuristicEvaluationCount;
+    }
+    
+    /**
+     * Calculates the heuristic value for the given state and caches h and f on it.
+     * A successor is evaluated from its parent's value, see {@link Heuristic#update}.
      * 
      * @param state The state to evaluate
-     * @return The heuristic value representing estimated cost to goal
+     * @param parent The state it was generated from, or null for the initial state
      */
-    private int calculateHeuristic(State state) {
-        return heuristic.calculate(state, width, height, exitDirection);
+    private void evaluate(PackedState state, PackedState parent) {
+        heuristicEvaluationCount++;
+        state.h = parent == null ? heuristic.calculate(board, state)
+            : heuristic.update(board, parent, parent.h, state, state.moveCar);
+        state.f = state.cost + state.h;
     }
     
     /**
      * Finds a path from the initial state to the goal state using A* search.
+     * The search runs on packed states and the solution path is unpacked at the end.
      * 
      * @param initialState The starting state of the puzzle
      * @return The goal state containing the solution path, or null if no solution exists
      */
     public State find(State initialState) {
-        queue.add(initialState);
-        costMap.put(getStateHash(initialState), initialState.cost);
+        board = new Board(initialState, width, height, kRow, kCol, exitDirection);
+        PackedState root = board.pack(initialState);
+        closed = bitsetVisited ? StateBitset.forBoard(board, root) : null;
+        if (bitsetVisited && closed == null) {
+            System.out.println("Too many states for a bitset, using a hash table");
+        } else if (closed != null && !heuristic.isConsistent()) {
+            System.out.println("Warning: " + heuristic.getName() + " is not consistent, the path may not be optimal with a bitset closed set");
+        }
+        costMap = closed == null ? new StateTable(board) : null;
+        queue.clear();
+        finishedMode = "A*";
+        long stateLimit = memoryBudget > 0 ? memoryBudget / bytesPerState() : Long.MAX_VALUE;
+        Board.MoveCursor cursor = board.newCursor();
+        PathStore paths = compactPath ? new PathStore() : null;
+        if (paths != null) {
+            root.node = paths.add(PathStore.ROOT, 0);
+        }
         visitedNodeCount = 0; // Reset counter
+        heuristicEvaluationCount = 0;
+        
+        evaluate(root, null);
+        queue.add(root);
+        if (costMap != null) {
+            costMap.put(root, root.cost);
+        }
         
         System.out.println("Using A* with heuristic: " + heuristic.getName());
         
         while (!queue.isEmpty()) {
-            State currentState = queue.poll();
+            PackedState currentState = queue.poll();
             visitedNodeCount++; // Increment counter when visiting a node
             
-            String stateHash = getStateHash(currentState);
-            if (costMap.containsKey(stateHash) && costMap.get(stateHash) < currentState.cost) {
-                continue;
+            if (closed != null) {
+                if (!closed.add(currentState)) continue;
+            } else {
+                int bestCost = costMap.get(currentState);
+                if (bestCost != StateTable.NOT_FOUND && bestCost < currentState.cost) {
+                    continue;
+                }
             }
             
             if (visitedNodeCount % 1000 == 0) {
                 System.out.println("Visited " + visitedNodeCount + " nodes so far");
             }
             
-            if (currentState.isReached(width, height, kRow, kCol, exitDirection)) {
+            if (storedStates() >= stateLimit) {
+                return fallBack(initialState, currentState.f);
+            }
+            
+            if (board.isReached(currentState)) {
                 System.out.println("Goal state reached!");
                 System.out.println("Visited nodes: " + visitedNodeCount);
+                System.out.println("Heuristic evaluations: " + heuristicEvaluationCount);
                 System.out.println("Total cost (steps): " + currentState.cost);
-                return currentState;
+                return paths == null ? board.unpackPath(currentState) : board.unpackPath(currentState, initialState, paths);
             }
             
-            List<State> successors = currentState.generateNextStates(width, height);
-            for (State successor : successors) {
-                String successorHash = getStateHash(successor);
-                if (!costMap.containsKey(successorHash) || successor.cost < costMap.get(successorHash)) {
-                    costMap.put(successorHash, successor.cost);
-                    queue.add(successor);
+            // Children are only built once they pass the duplicate check
+            int nextCost = currentState.cost + 1;
+            cursor.reset(currentState);
+            while (cursor.next()) {
+                if (closed != null) {
+                    if (closed.contains(cursor)) continue;
+                } else {
+                    int successorCost = costMap.get(cursor);
+                    if (successorCost != StateTable.NOT_FOUND && nextCost >= successorCost) continue;
+                }
+                PackedState successor = paths == null ? cursor.materialize() : cursor.materialize(paths);
+                if (costMap != null) {
+                    costMap.put(successor, successor.cost);
                 }
+                evaluate(successor, currentState);
+                queue.add(successor);
             }
         }
         
@@ -117,27 +243,47 @@ public class AStar {
     }
     
     /**
-     * Generate a hash string for a state based on car positions
-     * This is used as a key for the costMap
+     * Drops the A* lists and finishes the search with IDA*.
+     * The lowest f-value on the open list is a lower bound for every remaining
+     * path, so IDA* starts its first iteration there instead of at the root heuristic.
      * 
-     * @param state The state to convert to a hash string
-     * @return A string uniquely identifying the state configuration
+     * @param initialState The starting state of the puzzle
+     * @param bound Lowest f-value on the open list
+     * @return The goal state found by IDA*, or null if no solution exists
      */
-    private String getStateHash(State state) {
-        StringBuilder sb = new StringBuilder();
-
-        List<Character> carIds = new ArrayList<>(state.cars.keySet());
-        Collections.sort(carIds);
-        
-        for (char carId : carIds) {
-            sb.append(carId).append(":");
-            
-            for (long mask : state.cars.get(carId).bitmask) {
-                sb.append(mask).append(",");
-            }
-            sb.append(";");
-        }
+    private State fallBack(State initialState, int bound) {
+        System.out.println("Memory budget reached with " + storedStates() + " stored states, switching to IDA* at f = " + bound);
+        queue.clear();
+        costMap = null;
+        closed = null;
+        finishedMode = "IDA*";
         
-        return sb.toString();
+        IDAStar idaStar = new IDAStar(width, height, kRow, kCol, exitDirection, heuristic);
+        State goal = idaStar.find(initialState, bound);
+        visitedNodeCount += idaStar.getVisitedNodeCount();
+        heuristicEvaluationCount += idaStar.getHeuristicEvaluationCount();
+        return goal;
+    }
+    
+    /**
+     * Returns the number of states held by the search.
+     * A bitset closed set costs almost nothing, so then only the open list counts.
+     * 
+     * @return Size of the cost table, or of the open list in bitset mode
+     */
+    private long storedStates() {
+        return closed != null ? queue.size() : costMap.size();
+    }
+    
+    /**
+     * Estimates the heap used per stored state: its table slot, the node object
+     * with its offset array, and a reference in the open list.
+     * 
+     * @return Estimated bytes per state
+     */
+    private long bytesPerState() {
+        long slot = 2 * (8 + 4 + board.carCount); // Tabel terisi paling banyak 75%, ditambah ruang saat rehash
+        long node = 48 + 16 + board.carCount;
+        return slot + node + 8;
     }
 }
\ No newline at end of file
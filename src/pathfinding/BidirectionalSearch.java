@@ -0,0 +1,204 @@
+package pathfinding;
+
+import java.util.*;
+import util.Board;
+import util.PackedState;
+import util.State;
+import util.StateTable;
+
+/**
+ * Bidirectional breadth-first search between the initial state and the goal set.
+ * Every placement of the cars with a clear exit lane is a goal, so the backward
+ * search starts from all of them at once. Moves are reversible (a car can always
+ * slide back), so the backward side uses the same successor generator as the
+ * forward side. Each round expands one whole layer of the side with the smaller
+ * frontier; the first state generated on one side that the other side already
+ * knows joins two shortest half-paths into an optimal solution, like {@link UCS}.
+ * If the goal set is larger than the goal limit the search runs forward only.
+ */
+public class BidirectionalSearch {
+    private static final int DEFAULT_GOAL_LIMIT = 1 << 20;
+
+    private int width, height;
+    private int kRow, kCol;
+    private String exitDirection;
+    private int goalLimit = DEFAULT_GOAL_LIMIT;
+    private Board board;
+    private int visitedNodeCount;
+    private int goalCount;
+
+    /**
+     * One search direction: visited states with their index, plus the current layer.
+     */
+    private static class Side {
+        final StateTable index; // Maps state to its position in states
+        final List<PackedState> states = new ArrayList<>();
+        List<PackedState> frontier = new ArrayList<>();
+
+        /**
+         * Creates an empty side.
+         *
+         * @param board Board descriptor of the stored states
+         */
+        Side(Board board) {
+            this.index = new StateTable(board);
+        }
+
+        /**
+         * Records a state as visited and adds it to the next layer.
+         *
+         * @param state New state
+         * @param layer Layer that receives the state
+         */
+        void add(PackedState state, List<PackedState> layer) {
+            index.put(state, states.size());
+            states.add(state);
+            layer.add(state);
+        }
+    }
+
+    /**
+     * Constructs a bidirectional search solver with specified parameters.
+     *
+     * @param width Width of the puzzle grid
+     * @param height Height of the puzzle grid
+     * @param kRow Row position of the exit
+     * @param kCol Column position of the exit
+     * @param exitDirection Direction of the exit path
+     */
+    public BidirectionalSearch(int width, int height, int kRow, int kCol, String exitDirection) {
+        this.width = width;
+        this.height = height;
+        this.kRow = kRow;
+        this.kCol = kCol;
+        this.exitDirection = exitDirection;
+    }
+
+    /**
+     * Sets the largest goal set the backward search is seeded with.
+     *
+     * @param goalLimit Maximum number of goal states, larger goal sets make the search forward only
+     */
+    public void setGoalLimit(int goalLimit) {
+        this.goalLimit = Math.max(0, goalLimit);
+    }
+
+    /**
+     * Finds the optimal path from the initial state to the goal set.
+     *
+     * @param initialState The starting state of the puzzle
+     * @return The goal state containing the solution path, or null if no solution exists
+     */
+    public State find(State initialState) {
+        board = new Board(initialState, width, height, kRow, kCol, exitDirection);
+        PackedState root = board.pack(initialState);
+        visitedNodeCount = 0;
+
+        if (board.isReached(root)) {
+            System.out.println("Goal state reached!");
+            System.out.println("Total cost (steps): " + root.cost);
+            return board.unpackPath(root);
+        }
+
+        Side forward = new Side(board);
+        Side backward = new Side(board);
+        forward.add(root, forward.frontier);
+
+        List<PackedState> goals = board.goalStates(root, goalLimit);
+        boolean bidirectional = goals != null;
+        if (bidirectional) {
+            goalCount = goals.size();
+            for (PackedState goal : goals) {
+                backward.add(goal, backward.frontier);
+            }
+            System.out.println("Using bidirectional search from " + goalCount + " goal states");
+        } else {
+            goalCount = 0;
+            System.out.println("Goal set larger than " + goalLimit + " states, searching forward only");
+        }
+
+        Board.MoveCursor cursor = board.newCursor();
+        while (!forward.frontier.isEmpty() && (!bidirectional || !backward.frontier.isEmpty())) {
+            // Perluas sisi dengan frontier terkecil, satu layer penuh
+            boolean forwardTurn = !bidirectional || forward.frontier.size() <= backward.frontier.size();
+            Side active = forwardTurn ? forward : backward;
+            Side other = forwardTurn ? backward : forward;
+
+            List<PackedState> next = new ArrayList<>();
+            for (PackedState state : active.frontier) {
+                visitedNodeCount++;
+                cursor.reset(state);
+                while (cursor.next()) {
+                    if (active.index.get(cursor) != StateTable.NOT_FOUND) continue;
+
+                    int met = other.index.get(cursor);
+                    if (met != StateTable.NOT_FOUND) {
+                        PackedState here = cursor.materialize();
+                        PackedState there = other.states.get(met);
+                        PackedState goal = forwardTurn ? join(here, there) : join(there, here);
+                        return finish(goal);
+                    }
+
+                    PackedState successor = cursor.materialize();
+                    if (!bidirectional && cursor.leadsToGoal()) {
+                        return finish(successor);
+                    }
+                    active.add(successor, next);
+                }
+            }
+            active.frontier = next;
+        }
+
+        System.out.println("Goal state not reachable after exploring " + visitedNodeCount + " nodes.");
+        return null;
+    }
+
+    /**
+     * Returns the count of nodes expanded by both directions.
+     *
+     * @return The number of visited nodes
+     */
+    public int getVisitedNodeCount() {
+        return visitedNodeCount;
+    }
+
+    /**
+     * Returns the size of the goal set the backward search started from.
+     *
+     * @return Number of goal states, 0 if the search ran forward only
+     */
+    public int getGoalCount() {
+        return goalCount;
+    }
+
+    /**
+     * Appends the backward half-path to the forward half-path.
+     * The backward states point toward a goal through their parent links;
+     * they are copied in reverse so the result is one chain from the initial state.
+     *
+     * @param forwardState Meeting state on the forward side
+     * @param backwardState The same configuration on the backward side
+     * @return Goal state whose parent chain leads back to the initial state
+     */
+    private PackedState join(PackedState forwardState, PackedState backwardState) {
+        PackedState current = forwardState;
+        for (PackedState step = backwardState; step.parent != null; step = step.parent) {
+            PackedState toward = step.parent;
+            current = new PackedState(toward.offsets, current, step.moveCar, current.cost + 1, toward.fingerprint);
+        }
+        return current;
+    }
+
+    /**
+     * Prints the search summary and unpacks the solution.
+     *
+     * @param goal Goal state with a parent chain from the initial state
+     * @return Unpacked goal state
+     */
+    private State finish(PackedState goal) {
+        System.out.println("Goal state reached!");
+        System.out.println("Visited nodes: " + visitedNodeCount);
+        System.out.println("Total cost (steps): " + goal.cost);
+        return board.unpackPath(goal);
+    }
+}
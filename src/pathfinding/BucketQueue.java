@@ -0,0 +1,177 @@
+package pathfinding;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import util.PackedState;
+
+/**
+ * Open list for small integer priorities.
+ * States are kept in buckets indexed by their stored f-value and, inside each
+ * f-bucket, by their h-value, so lower h wins ties. Each bucket is a LIFO stack.
+ * Insertion and removal are O(1) apart from skipping empty buckets.
+ */
+public class BucketQueue extends AbstractQueue<PackedState> {
+    private ArrayDeque<PackedState>[][] buckets; // [f][h]
+    private int[] rowSize; // Jumlah state per f
+    private final ArrayDeque<PackedState> overflow; // State dengan f/h tak hingga
+    private int minF;
+    private int size;
+
+    /**
+     * Creates an empty bucket queue.
+     */
+    @SuppressWarnings("unchecked")
+    public BucketQueue() {
+        this.buckets = (ArrayDeque<PackedState>[][]) new ArrayDeque<?>[64][];
+        this.rowSize = new int[64];
+        this.overflow = new ArrayDeque<>();
+        this.minF = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Adds a state to the bucket of its stored f and h values.
+     * States with a negative f or an infinite h are kept in a separate
+     * bucket that is only served when every other bucket is empty.
+     *
+     * @param state State to add
+     * @return Always true
+     */
+    @Override
+    public boolean offer(PackedState state) {
+        size++;
+        int f = state.f;
+        int h = state.h;
+        if (f < 0 || h < 0 || h == Integer.MAX_VALUE) {
+            overflow.push(state);
+            return true;
+        }
+
+        if (f >= buckets.length) {
+            int capacity = Math.max(f + 1, buckets.length * 2);
+            buckets = Arrays.copyOf(buckets, capacity);
+            rowSize = Arrays.copyOf(rowSize, capacity);
+        }
+        ArrayDeque<PackedState>[] row = buckets[f];
+        if (row == null || h >= row.length) {
+            row = grow(row, h + 1);
+            buckets[f] = row;
+        }
+        if (row[h] == null) {
+            row[h] = new ArrayDeque<>();
+        }
+
+        row[h].push(state);
+        rowSize[f]++;
+        if (f < minF) minF = f;
+        return true;
+    }
+
+    /**
+     * Removes the state with the lowest f, breaking ties by lowest h.
+     *
+     * @return The removed state, or null if the queue is empty
+     */
+    @Override
+    public PackedState poll() {
+        if (size == 0) return null;
+        size--;
+
+        while (minF < rowSize.length && rowSize[minF] == 0) {
+            minF++;
+        }
+        if (minF == rowSize.length) {
+            return overflow.pop();
+        }
+
+        ArrayDeque<PackedState>[] row = buckets[minF];
+        rowSize[minF]--;
+        for (ArrayDeque<PackedState> bucket : row) {
+            if (bucket != null && !bucket.isEmpty()) {
+                return bucket.pop();
+            }
+        }
+        throw new IllegalStateException("Bucket count out of sync");
+    }
+
+    /**
+     * Returns the state that would be removed next without removing it.
+     *
+     * @return The next state, or null if the queue is empty
+     */
+    @Override
+    public PackedState peek() {
+        if (size == 0) return null;
+        for (int f = minF; f < rowSize.length; f++) {
+            if (rowSize[f] == 0) continue;
+            for (ArrayDeque<PackedState> bucket : buckets[f]) {
+                if (bucket != null && !bucket.isEmpty()) {
+                    return bucket.peek();
+                }
+            }
+        }
+        return overflow.peek();
+    }
+
+    /**
+     * Returns the number of states in the queue.
+     *
+     * @return Number of states
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all states from the queue.
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(buckets, null);
+        Arrays.fill(rowSize, 0);
+        overflow.clear();
+        minF = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns an iterator over all states in no particular order.
+     * The iterator does not support removal.
+     *
+     * @return Iterator over the queued states
+     */
+    @Override
+    public Iterator<PackedState> iterator() {
+        List<PackedState> all = new ArrayList<>(size);
+        for (ArrayDeque<PackedState>[] row : buckets) {
+            if (row == null) continue;
+            for (ArrayDeque<PackedState> bucket : row) {
+                if (bucket != null) all.addAll(bucket);
+            }
+        }
+        all.addAll(overflow);
+        return Collections.unmodifiableList(all).iterator();
+    }
+
+    /**
+     * Grows an h-row so it can hold the given number of buckets.
+     *
+     * @param row Existing row, may be null
+     * @param minLength Required length
+     * @return Row with at least the required length
+     */
+    @SuppressWarnings("unchecked")
+    private static ArrayDeque<PackedState>[] grow(ArrayDeque<PackedState>[] row, int minLength) {
+        if (row == null) {
+            return (ArrayDeque<PackedState>[]) new ArrayDeque<?>[Math.max(minLength, 8)];
+        }
+        return Arrays.copyOf(row, Math.max(minLength, row.length * 2));
+    }
+}
@@ -0,0 +1,401 @@
+package pathfinding;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import util.Board;
+import util.PackedState;
+import util.State;
+
+/**
+ * Breadth-first search with its layers on disk.
+ * Every layer is a file of fixed-size records (one offset byte per car) sorted
+ * as unsigned bytes. Successors of a layer are collected in memory-sized chunks,
+ * each chunk is sorted and written as a run, and the runs are merged while
+ * dropping duplicates and every state of the two previous layers. Moves are
+ * reversible, so a new state can only repeat one of those two layers. Only one
+ * chunk is ever held in memory, which lets the search go beyond the heap size.
+ * The solution path is rebuilt afterwards by scanning the layers backward for a neighbour.
+ */
+public class ExternalBFS {
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 20; // Record per run
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private int width, height;
+    private int kRow, kCol;
+    private String exitDirection;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private Path workDirectory;
+    private Board board;
+    private int recordSize;
+    private long visitedNodeCount;
+
+    /**
+     * Constructs an external-memory BFS solver with specified parameters.
+     *
+     * @param width Width of the puzzle grid
+     * @param height Height of the puzzle grid
+     * @param kRow Row position of the exit
+     * @param kCol Column position of the exit
+     * @param exitDirection Direction of the exit path
+     */
+    public ExternalBFS(int width, int height, int kRow, int kCol, String exitDirection) {
+        this.width = width;
+        this.height = height;
+        this.kRow = kRow;
+        this.kCol = kCol;
+        this.exitDirection = exitDirection;
+    }
+
+    /**
+     * Sets how many successor records are sorted in memory before they go to disk.
+     *
+     * @param chunkSize Records per sorted run, at least 1
+     */
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Sets the directory for the layer files.
+     * A temporary directory is created inside it and removed after the search.
+     *
+     * @param workDirectory Parent directory, null for the system temporary directory
+     */
+    public void setWorkDirectory(Path workDirectory) {
+        this.workDirectory = workDirectory;
+    }
+
+    /**
+     * Finds the optimal path from the initial state to the goal state, one disk layer at a time.
+     *
+     * @param initialState The starting state of the puzzle
+     * @return The goal state containing the solution path, or null if no solution exists
+     * @throws UncheckedIOException If a layer file cannot be written or read
+     */
+    public State find(State initialState) {
+        board = new Board(initialState, width, height, kRow, kCol, exitDirection);
+        PackedState root = board.pack(initialState);
+        recordSize = board.carCount;
+        visitedNodeCount = 0;
+
+        if (board.isReached(root)) {
+            System.out.println("Goal state reached!");
+            System.out.println("Total cost (steps): " + root.cost);
+            return board.unpackPath(root);
+        }
+
+        Path dir = null;
+        try {
+            dir = workDirectory == null ? Files.createTempDirectory("rushhour-bfs")
+                                        : Files.createTempDirectory(workDirectory, "rushhour-bfs");
+            System.out.println("Using external BFS in " + dir);
+
+            try (OutputStream out = output(layerFile(dir, 0))) {
+                out.write(root.offsets);
+            }
+
+            for (int depth = 0; ; depth++) {
+                byte[] goal = expandLayer(dir, depth);
+                if (goal != null) {
+                    PackedState last = rebuildPath(dir, root, goal, depth);
+                    System.out.println("Goal state reached!");
+                    System.out.println("Visited nodes: " + visitedNodeCount);
+                    System.out.println("Total cost (steps): " + last.cost);
+                    return board.unpackPath(last);
+                }
+                long size = Files.size(layerFile(dir, depth + 1)) / recordSize;
+                System.out.println("Layer " + (depth + 1) + ": " + size + " states");
+                if (size == 0) break;
+            }
+
+            System.out.println("Goal state not reachable after exploring " + visitedNodeCount + " nodes.");
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("External BFS failed: " + e.getMessage(), e);
+        } finally {
+            deleteDirectory(dir);
+        }
+    }
+
+    /**
+     * Returns the count of nodes expanded during the search.
+     *
+     * @return The number of visited nodes, capped at {@code Integer.MAX_VALUE}
+     */
+    public int getVisitedNodeCount() {
+        return (int) Math.min(Integer.MAX_VALUE, visitedNodeCount);
+    }
+
+    /**
+     * Expands one layer into the next layer file.
+     * Successors are buffered and written as sorted runs, then merged with
+     * duplicate detection against the current and the previous layer.
+     *
+     * @param dir Work directory
+     * @param depth Depth of the layer to expand
+     * @return Offsets of a goal state in the next layer, or null if there is none
+     * @throws IOException If a file operation fails
+     */
+    private byte[] expandLayer(Path dir, int depth) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        List<byte[]> chunk = new ArrayList<>();
+        Board.MoveCursor cursor = board.newCursor();
+
+        try (RecordReader layer = new RecordReader(layerFile(dir, depth))) {
+            for (byte[] record = layer.next(); record != null; record = layer.next()) {
+                visitedNodeCount++;
+                PackedState state = new PackedState(record, null, -1, depth, 0);
+                cursor.reset(state);
+                while (cursor.next()) {
+                    PackedState successor = cursor.materialize();
+                    if (cursor.leadsToGoal()) {
+                        return successor.offsets;
+                    }
+                    chunk.add(successor.offsets);
+                    if (chunk.size() >= chunkSize) {
+                        runs.add(writeRun(dir, depth, runs.size(), chunk));
+                        chunk.clear();
+                    }
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            runs.add(writeRun(dir, depth, runs.size(), chunk));
+        }
+
+        mergeRuns(runs, layerFile(dir, depth + 1), layerFile(dir, depth), depth > 0 ? layerFile(dir, depth - 1) : null);
+        for (Path run : runs) {
+            Files.delete(run);
+        }
+        return null;
+    }
+
+    /**
+     * Sorts a chunk of records and writes it without duplicates.
+     *
+     * @param dir Work directory
+     * @param depth Depth of the layer being expanded
+     * @param index Index of the run within the layer
+     * @param chunk Records to write
+     * @return Path of the run file
+     * @throws IOException If the file cannot be written
+     */
+    private Path writeRun(Path dir, int depth, int index, List<byte[]> chunk) throws IOException {
+        chunk.sort(Arrays::compareUnsigned);
+        Path run = dir.resolve("run-" + depth + "-" + index + ".bin");
+        try (OutputStream out = output(run)) {
+            byte[] previous = null;
+            for (byte[] record : chunk) {
+                if (previous == null || !Arrays.equals(previous, record)) {
+                    out.write(record);
+                }
+                previous = record;
+            }
+        }
+        return run;
+    }
+
+    /**
+     * Merges sorted runs into the next layer, keeping each state once and
+     * skipping states that already appear in the two previous layers.
+     *
+     * @param runs Sorted run files
+     * @param target Next layer file
+     * @param current Layer that was expanded
+     * @param previous Layer before it, or null at depth 0
+     * @throws IOException If a file operation fails
+     */
+    private void mergeRuns(List<Path> runs, Path target, Path current, Path previous) throws IOException {
+        PriorityQueue<RecordReader> heads = new PriorityQueue<>((a, b) -> Arrays.compareUnsigned(a.record, b.record));
+        List<RecordReader> readers = new ArrayList<>();
+        try (OutputStream out = output(target)) {
+            for (Path run : runs) {
+                RecordReader reader = new RecordReader(run);
+                readers.add(reader);
+                if (reader.next() != null) heads.add(reader);
+            }
+            RecordReader currentLayer = new RecordReader(current);
+            readers.add(currentLayer);
+            currentLayer.next();
+            RecordReader previousLayer = null;
+            if (previous != null) {
+                previousLayer = new RecordReader(previous);
+                readers.add(previousLayer);
+                previousLayer.next();
+            }
+
+            byte[] last = null;
+            while (!heads.isEmpty()) {
+                RecordReader head = heads.poll();
+                byte[] record = head.record;
+                if (head.next() != null) heads.add(head);
+
+                if (last != null && Arrays.equals(last, record)) continue;
+                last = record;
+                // Deteksi duplikat tertunda: cocokkan dengan dua layer sebelumnya secara merge
+                if (currentLayer.skipTo(record) || previousLayer != null && previousLayer.skipTo(record)) continue;
+                out.write(record);
+            }
+        } finally {
+            for (RecordReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Walks from the goal back to the initial state: in each earlier layer
+     * some state is a neighbour of the current one, since moves are reversible.
+     *
+     * @param dir Work directory
+     * @param root Initial packed state
+     * @param goal Offsets of the goal state
+     * @param depth Depth of the goal's parent layer
+     * @return Goal state whose parent chain leads back to the initial state
+     * @throws IOException If a layer file cannot be read
+     * @throws IllegalStateException If the layer files do not connect the goal to the initial state
+     */
+    private PackedState rebuildPath(Path dir, PackedState root, byte[] goal, int depth) throws IOException {
+        List<byte[]> path = new ArrayList<>();
+        path.add(goal);
+        Board.MoveCursor cursor = board.newCursor();
+        for (int d = depth; d > 0; d--) {
+            List<byte[]> neighbours = new ArrayList<>();
+            cursor.reset(new PackedState(path.get(path.size() - 1), null, -1, 0, 0));
+            while (cursor.next()) {
+                neighbours.add(cursor.materialize().offsets);
+            }
+            neighbours.sort(Arrays::compareUnsigned);
+
+            byte[] found = null;
+            try (RecordReader layer = new RecordReader(layerFile(dir, d))) {
+                for (byte[] record = layer.next(); record != null && found == null; record = layer.next()) {
+                    if (Collections.binarySearch(neighbours, record, Arrays::compareUnsigned) >= 0) {
+                        found = record.clone();
+                    }
+                }
+            }
+            if (found == null) {
+                throw new IllegalStateException("No predecessor found in layer " + d);
+            }
+            path.add(found);
+        }
+        Collections.reverse(path);
+
+        // Bangun ulang rantai parent dari state awal dengan langkah yang sebenarnya
+        PackedState current = root;
+        for (byte[] offsets : path) {
+            PackedState next = new PackedState(offsets, null, -1, 0, 0);
+            boolean moved = false;
+            cursor.reset(current);
+            while (!moved && cursor.next()) {
+                moved = next.equalsMove(current, cursor.car, cursor.offset);
+            }
+            if (!moved) {
+                throw new IllegalStateException("No move leads to the next state of the path");
+            }
+            current = cursor.materialize();
+        }
+        return current;
+    }
+
+    /**
+     * Returns the file of a layer.
+     *
+     * @param dir Work directory
+     * @param depth Depth of the layer
+     * @return Path of the layer file
+     */
+    private static Path layerFile(Path dir, int depth) {
+        return dir.resolve("layer-" + depth + ".bin");
+    }
+
+    /**
+     * Opens a buffered output stream for a file.
+     *
+     * @param file File to create or overwrite
+     * @return Buffered stream
+     * @throws IOException If the file cannot be opened
+     */
+    private static OutputStream output(Path file) throws IOException {
+        return new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE);
+    }
+
+    /**
+     * Removes the work directory and everything in it.
+     *
+     * @param dir Work directory, may be null
+     */
+    private static void deleteDirectory(Path dir) {
+        if (dir == null) return;
+        try (var files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(dir);
+        } catch (IOException e) {
+            System.out.println("Could not remove " + dir + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sequential reader of a sorted record file.
+     */
+    private class RecordReader implements Closeable {
+        private final DataInputStream in;
+        byte[] record; // Record terakhir yang dibaca, null jika file habis
+
+        /**
+         * Opens a record file.
+         *
+         * @param file File to read
+         * @throws IOException If the file cannot be opened
+         */
+        RecordReader(Path file) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE));
+        }
+
+        /**
+         * Reads the next record into a fresh array.
+         *
+         * @return The record, or null at the end of the file
+         * @throws IOException If the file cannot be read
+         */
+        byte[] next() throws IOException {
+            byte[] buffer = new byte[recordSize];
+            try {
+                in.readFully(buffer);
+                record = buffer;
+            } catch (EOFException e) {
+                record = null;
+            }
+            return record;
+        }
+
+        /**
+         * Advances past every record smaller than a key.
+         *
+         * @param key Record to look for
+         * @return True if the file contains the key
+         * @throws IOException If the file cannot be read
+         */
+        boolean skipTo(byte[] key) throws IOException {
+            while (record != null && Arrays.compareUnsigned(record, key) < 0) {
+                next();
+            }
+            return record != null && Arrays.equals(record, key);
+        }
+
+        /**
+         * Closes the file.
+         *
+         * @throws IOException If closing fails
+         */
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package pathfinding;
+
+import java.util.*;
+import util.Board;
+import util.PackedState;
+import util.State;
+import util.StateTable;
+import heuristic.Heuristic;
+
+/**
+ * Focal search (A*-epsilon) with a suboptimality bound w.
+ * The open list is kept in buckets by f = g + h. Every node whose f is at most
+ * w times the lowest open f belongs to the focal list, which is ordered by h alone,
+ * so the search heads for the goal like Greedy Best-First Search while the returned
+ * step count stays within w times the optimum for an admissible heuristic.
+ */
+public class FocalSearch {
+    private int width, height;
+    private int kRow, kCol;
+    private String exitDirection;
+    private Heuristic heuristic;
+    private double weight;
+    private Board board;
+    private StateTable costMap; // Maps state to lowest cost found
+    private PriorityQueue<PackedState> focal;
+    private List<List<PackedState>> buckets; // Node open di luar focal, per nilai f
+    private int[] openCount; // Jumlah node open per f, termasuk yang sudah di focal
+    private int minF;
+    private int focalLimit; // Node dengan f <= focalLimit ada di focal
+    private int visitedNodeCount;
+    private int heuristicEvaluationCount;
+
+    /**
+     * Constructs a focal search solver with specified parameters.
+     *
+     * @param width Width of the puzzle grid
+     * @param height Height of the puzzle grid
+     * @param kRow Row position of the exit
+     * @param kCol Column position of the exit
+     * @param exitDirection Direction of the exit path
+     * @param heuristic Heuristic function to use for evaluation
+     * @param weight Suboptimality bound w, at least 1
+     */
+    public FocalSearch(int width, int height, int kRow, int kCol, String exitDirection, Heuristic heuristic, double weight) {
+        this.width = width;
+        this.height = height;
+        this.kRow = kRow;
+        this.kCol = kCol;
+        this.exitDirection = exitDirection;
+        this.heuristic = heuristic;
+        this.weight = Math.max(1.0, weight);
+    }
+
+    /**
+     * Finds a path whose step count is within the bound of the optimum.
+     *
+     * @param initialState The starting state of the puzzle
+     * @return The goal state containing the solution path, or null if no solution exists
+     */
+    public State find(State initialState) {
+        board = new Board(initialState, width, height, kRow, kCol, exitDirection);
+        PackedState root = board.pack(initialState);
+        costMap = new StateTable(board);
+        Board.MoveCursor cursor = board.newCursor();
+        focal = new PriorityQueue<>((s1, s2) -> s1.h != s2.h ? Integer.compare(s1.h, s2.h) : Integer.compare(s1.f, s2.f));
+        buckets = new ArrayList<>();
+        openCount = new int[64];
+        visitedNodeCount = 0;
+        heuristicEvaluationCount = 0;
+
+        evaluate(root, null);
+        costMap.put(root, root.cost);
+        minF = root.f;
+        focalLimit = limitFor(minF);
+        addOpen(root);
+
+        System.out.println("Using focal search (w = " + weight + ") with heuristic: " + heuristic.getName());
+
+        while (!focal.isEmpty()) {
+            PackedState currentState = focal.poll();
+            openCount[currentState.f]--;
+            visitedNodeCount++;
+
+            int bestCost = costMap.get(currentState);
+            if (bestCost == StateTable.NOT_FOUND || bestCost >= currentState.cost) {
+                if (board.isReached(currentState)) {
+                    System.out.println("Goal state reached!");
+                    System.out.println("Visited nodes: " + visitedNodeCount);
+                    System.out.println("Heuristic evaluations: " + heuristicEvaluationCount);
+                    System.out.println("Total cost (steps): " + currentState.cost);
+                    return board.unpackPath(currentState);
+                }
+
+                int nextCost = currentState.cost + 1;
+                cursor.reset(currentState);
+                while (cursor.next()) {
+                    int successorCost = costMap.get(cursor);
+                    if (successorCost == StateTable.NOT_FOUND || nextCost < successorCost) {
+                        PackedState successor = cursor.materialize();
+                        costMap.put(successor, successor.cost);
+                        evaluate(successor, currentState);
+                        addOpen(successor);
+                    }
+                }
+            }
+
+            updateFocal();
+        }
+
+        System.out.println("Goal state not reachable after exploring " + visitedNodeCount + " nodes.");
+        return null;
+    }
+
+    /**
+     * Returns the count of nodes visited during the search.
+     *
+     * @return The number of visited nodes
+     */
+    public int getVisitedNodeCount() {
+        return visitedNodeCount;
+    }
+
+    /**
+     * Returns the number of heuristic evaluations during the search.
+     *
+     * @return The count of heuristic evaluations
+     */
+    public int getHeuristicEvaluationCount() {
+        return heuristicEvaluationCount;
+    }
+
+    /**
+     * Adds a node to the open list, directly into focal if its f is within the limit.
+     * A node whose heuristic is infinite cannot reach the goal, so it is dropped as a dead end.
+     *
+     * @param state Evaluated node
+     */
+    private void addOpen(PackedState state) {
+        int f = state.f;
+        if (state.h == Integer.MAX_VALUE || f < 0) {
+            return; // Jalan buntu: f tak hingga atau overflow
+        }
+        if (f >= openCount.length) {
+            openCount = Arrays.copyOf(openCount, Math.max(f + 1, openCount.length * 2));
+        }
+        openCount[f]++;
+        if (f < minF) {
+            minF = f; // Hanya terjadi dengan heuristik yang tidak konsisten
+            shrinkFocal();
+        }
+
+        if (f <= focalLimit) {
+            focal.add(state);
+        } else {
+            addToBucket(state);
+        }
+    }
+
+    /**
+     * Parks an open node outside focal in the bucket of its f-value.
+     *
+     * @param state Evaluated node
+     */
+    private void addToBucket(PackedState state) {
+        while (buckets.size() <= state.f) {
+            buckets.add(null);
+        }
+        if (buckets.get(state.f) == null) {
+            buckets.set(state.f, new ArrayList<>());
+        }
+        buckets.get(state.f).add(state);
+    }
+
+    /**
+     * Moves the lowest open f forward past empty buckets and pours every bucket
+     * that is now within w times that f into the focal list.
+     */
+    private void updateFocal() {
+        while (minF < openCount.length && openCount[minF] == 0) {
+            minF++;
+        }
+        if (minF == openCount.length) {
+            return;
+        }
+
+        int limit = limitFor(minF);
+        for (int f = focalLimit + 1; f <= limit && f < buckets.size(); f++) {
+            List<PackedState> bucket = buckets.get(f);
+            if (bucket != null) {
+                focal.addAll(bucket);
+                buckets.set(f, null);
+            }
+        }
+        focalLimit = Math.max(focalLimit, limit);
+    }
+
+    /**
+     * Moves focal nodes back to their buckets after the lowest open f dropped,
+     * so focal never holds a node outside the bound.
+     */
+    private void shrinkFocal() {
+        int limit = limitFor(minF);
+        if (limit >= focalLimit) {
+            return;
+        }
+        List<PackedState> kept = new ArrayList<>();
+        focalLimit = limit;
+        for (PackedState state : focal) {
+            if (state.f <= limit) {
+                kept.add(state);
+            } else {
+                addToBucket(state);
+            }
+        }
+        focal.clear();
+        focal.addAll(kept);
+    }
+
+    /**
+     * Returns the highest f-value allowed in focal for a given lowest open f.
+     *
+     * @param lowestF Lowest f-value on the open list
+     * @return floor(w * lowestF)
+     */
+    private int limitFor(int lowestF) {
+        return (int) Math.floor(weight * lowestF + 1e-9);
+    }
+
+    /**
+     * Calculates the heuristic value for the given state and caches h and f on it.
+     * A successor is evaluated from its parent's value, see {@link Heuristic#update}.
+     *
+     * @param state The state to evaluate
+     * @param parent The state it was generated from, or null for the initial state
+     */
+    private void evaluate(PackedState state, PackedState parent) {
+        heuristicEvaluationCount++;
+        state.h = parent == null ? heuristic.calculate(board, state)
+            : heuristic.update(board, parent, parent.h, state, state.moveCar);
+        state.f = state.cost + state.h;
+    }
+}
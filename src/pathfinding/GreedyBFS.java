@@ -1,20 +1,27 @@
 package pathfinding;
 
 import java.util.*;
+import util.Board;
+import util.PackedState;
+import util.PathStore;
 import util.State;
+import util.StateTable;
 import heuristic.Heuristic;
 
 /**
  * Implementation of Greedy Best-First Search algorithm for pathfinding.
  */
 public class GreedyBFS {
-    private PriorityQueue<State> queue;
-    private Map<String, Integer> visitedMap;
+    private PriorityQueue<PackedState> queue;
+    private StateTable visitedMap; // Maps state to the cost it was first reached with
     private int width, height;
     private int kRow, kCol;
     private String exitDirection;
     private Heuristic heuristic;
+    private Board board;
     private int visitedNodeCount;
+    private boolean compactPath; // Simpan pohon pencarian di PathStore
+    private int heuristicEvaluationCount;
     
     /**
      * Constructs a Greedy Best-First Search solver with specified parameters.
@@ -34,57 +41,71 @@ public class GreedyBFS {
         this.exitDirection = exitDirection;
         this.heuristic = heuristic;
         
-        this.queue = new PriorityQueue<>((s1, s2) -> {
-            int h1 = calculateHeuristic(s1);
-            int h2 = calculateHeuristic(s2);
-            return Integer.compare(h1, h2);
-        });
-        this.visitedMap = new HashMap<>();
+        // Order on the heuristic value stored in each node, never re-evaluating it
+        this.queue = new PriorityQueue<>((s1, s2) -> Integer.compare(s1.h, s2.h));
     }
     
     /**
-     * Calculates the heuristic value for the given state.
+     * Calculates the heuristic value for the given state and caches h and f on it.
+     * A successor is evaluated from its parent's value, see {@link Heuristic#update}.
      * 
      * @param state The state to evaluate
-     * @return The heuristic value representing estimated cost to goal
+     * @param parent The state it was generated from, or null for the initial state
      */
-    private int calculateHeuristic(State state) {
-        return heuristic.calculate(state, width, height, exitDirection);
+    private void evaluate(PackedState state, PackedState parent) {
+        heuristicEvaluationCount++;
+        state.h = parent == null ? heuristic.calculate(board, state)
+            : heuristic.update(board, parent, parent.h, state, state.moveCar);
+        state.f = state.cost + state.h;
     }
     
     /**
      * Finds a path from the initial state to the goal state using Greedy Best-First Search.
+     * The search runs on packed states and the solution path is unpacked at the end.
      * 
      * @param initialState The starting state of the puzzle
      * @return The goal state containing the solution path, or null if no solution exists
      */
     public State find(State initialState) {
-        queue.add(initialState);
-        visitedMap.put(getStateHash(initialState), calculateHeuristic(initialState));
+        board = new Board(initialState, width, height, kRow, kCol, exitDirection);
+        PackedState root = board.pack(initialState);
+        visitedMap = new StateTable(board);
+        Board.MoveCursor cursor = board.newCursor();
+        PathStore paths = compactPath ? new PathStore() : null;
+        if (paths != null) {
+            root.node = paths.add(PathStore.ROOT, 0);
+        }
         visitedNodeCount = 0;
+        heuristicEvaluationCount = 0;
+        
+        evaluate(root, null);
+        queue.add(root);
+        visitedMap.put(root, root.cost);
         
         System.out.println("Using Greedy Best-First Search with heuristic: " + heuristic.getName());
         
         while (!queue.isEmpty()) {
-            State currentState = queue.poll();
+            PackedState currentState = queue.poll();
             visitedNodeCount++;
             
             if (visitedNodeCount % 1000 == 0) {
                 System.out.println("Visited " + visitedNodeCount + " nodes so far");
             }
             
-            if (currentState.isReached(width, height, kRow, kCol, exitDirection)) {
+            if (board.isReached(currentState)) {
                 System.out.println("Goal state reached!");
                 System.out.println("Visited nodes: " + visitedNodeCount);
+                System.out.println("Heuristic evaluations: " + heuristicEvaluationCount);
                 System.out.println("Total cost (steps): " + currentState.cost);
-                return currentState;
+                return paths == null ? board.unpackPath(currentState) : board.unpackPath(currentState, initialState, paths);
             }
             
-            List<State> successors = currentState.generateNextStates(width, height);
-            for (State successor : successors) {
-                String successorHash = getStateHash(successor);
-                if (!visitedMap.containsKey(successorHash)) {
-                    visitedMap.put(successorHash, calculateHeuristic(successor));
+            cursor.reset(currentState);
+            while (cursor.next()) {
+                if (visitedMap.get(cursor) == StateTable.NOT_FOUND) {
+                    PackedState successor = paths == null ? cursor.materialize() : cursor.materialize(paths);
+                    visitedMap.put(successor, successor.cost);
+                    evaluate(successor, currentState);
                     queue.add(successor);
                 }
             }
@@ -94,6 +115,17 @@ public class GreedyBFS {
         return null;
     }
     
+    /**
+     * Chooses how the search tree is kept.
+     * With a compact path store, nodes hold only a parent index and a packed move,
+     * and the solution is replayed from the initial state afterwards.
+     * 
+     * @param compactPath True to use a {@link PathStore} instead of parent references
+     */
+    public void setCompactPath(boolean compactPath) {
+        this.compactPath = compactPath;
+    }
+    
     /**
      * Returns the count of nodes visited during the search.
      * 
@@ -104,26 +136,11 @@ public class GreedyBFS {
     }
     
     /**
-     * Creates a unique string representation of a state for use in the visited map.
+     * Returns the number of heuristic evaluations during the search.
      * 
-     * @param state The state to convert to a hash string
-     * @return A string uniquely identifying the state configuration
+     * @return The count of heuristic evaluations
      */
-    private String getStateHash(State state) {
-        StringBuilder sb = new StringBuilder();
-        
-        List<Character> carIds = new ArrayList<>(state.cars.keySet());
-        Collections.sort(carIds);
-        
-        for (char carId : carIds) {
-            sb.append(carId).append(":");
-            
-            for (long mask : state.cars.get(carId).bitmask) {
-                sb.append(mask).append(",");
-            }
-            sb.append(";");
-        }
-        
-        return sb.toString();
+    public int getHeuristicEvaluationCount() {
+        return heuristicEvaluationCount;
     }
 }
\ No newline at end of file
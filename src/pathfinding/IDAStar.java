@@ -1,6 +1,8 @@
 package pathfinding;
 
 import java.util.*;
+import util.Board;
+import util.PackedState;
 import util.State;
 import heuristic.Heuristic;
 
@@ -12,7 +14,17 @@ public class IDAStar {
     private int kRow, kCol;
     private String exitDirection;
     private Heuristic heuristic;
+    private Board board;
     private int visitedNode;
+    private int heuristicEvaluationCount;
+    private static final int FOUND = -1;
+    
+    private PackedState work; // Satu-satunya state yang diubah selama pencarian
+    private Frame[] frames; // Satu frame per kedalaman
+    private int depth;
+    private int goalCar;
+    private int tableSize; // 0 berarti tanpa tabel transposisi
+    private TranspositionTable table;
     
     /**
      * Constructs an IDA* search solver with specified parameters.
@@ -33,32 +45,66 @@ public class IDAStar {
         this.heuristic = heuristic;
     }
     
+    /**
+     * Sets the number of entries of the transposition table.
+     * The table keeps a lower bound on the remaining cost of states searched in
+     * earlier iterations, so repeated transpositions are cut off sooner.
+     * The search runs without a table unless a size is set.
+     * 
+     * @param tableSize Number of entries, 0 to search without a table
+     */
+    public void setTranspositionTableSize(int tableSize) {
+        this.tableSize = tableSize;
+    }
+    
     /**
      * Finds a path from the initial state to the goal state using IDA* search.
+     * The search runs on packed states and the solution path is unpacked at the end.
      * 
      * @param initialState The starting state of the puzzle
      * @return The goal state containing the solution path, or null if no solution exists
      */
     public State find(State initialState) {
+        return find(initialState, 0);
+    }
+    
+    /**
+     * Finds a path using IDA* search, starting at a known lower bound on the f-value.
+     * Used to continue a search that ran out of memory with the bound it already proved.
+     * 
+     * @param initialState The starting state of the puzzle
+     * @param minThreshold Lowest threshold to start with; the root heuristic is used if it is higher
+     * @return The goal state containing the solution path, or null if no solution exists
+     */
+    public State find(State initialState, int minThreshold) {
+        board = new Board(initialState, width, height, kRow, kCol, exitDirection);
+        PackedState root = board.pack(initialState);
+        work = board.pack(initialState);
+        frames = new Frame[0];
+        table = tableSize > 0 ? new TranspositionTable(tableSize, board.carCount) : null;
+        
         visitedNode = 0;
-        int threshold = calculateHeuristic(initialState);
+        heuristicEvaluationCount = 0;
+        int threshold = Math.max(calculateHeuristic(root), minThreshold);
         
         System.out.println("Using IDA* with heuristic: " + heuristic.getName());
         
         while (threshold < Integer.MAX_VALUE) {
             System.out.println("Current threshold: " + threshold);
-            int nextThreshold = Integer.MAX_VALUE;
-            Set<String> visitedStates = new HashSet<>(); // Using string hashes
-            SearchResult result = search(initialState, 0, threshold, visitedStates, nextThreshold);
+            work.copyFrom(root);
+            work.cost = 0;
+            int result = search(threshold);
             
-            if (result.state != null) {
+            if (result == FOUND) {
+                PackedState goal = buildPath();
                 System.out.println("Goal state reached!");
                 System.out.println("Visited nodes: " + visitedNode);
-                System.out.println("Total cost (steps): " + result.state.cost);
-                return result.state;
+                System.out.println("Heuristic evaluations: " + heuristicEvaluationCount);
+                System.out.println("Total cost (steps): " + goal.cost);
+                return board.unpackPath(goal);
             }
             
-            threshold = result.nextThreshold;
+            threshold = result;
             if (threshold == Integer.MAX_VALUE) {
                 System.out.println("Goal state not reachable after exploring " + visitedNode + " nodes.");
                 return null;
@@ -69,83 +115,179 @@ public class IDAStar {
     }
     
     /**
-     * Recursive depth-first search with iterative deepening based on f-value threshold.
+     * Depth-first search bounded by an f-value threshold, using an explicit stack.
+     * Moves are done and undone on the single working state, so no node is allocated
+     * while searching; each depth reuses its preallocated frame.
      * 
-     * @param state Current state being explored
-     * @param g Current path cost
      * @param threshold Current f-value threshold
-     * @param visitedStates Set of visited states in current path
-     * @param nextThreshold Minimum f-value exceeding current threshold
-     * @return Search result containing found state or next threshold value
+     * @return {@link #FOUND} if the working state is a goal, otherwise the minimum f-value exceeding the threshold
      */
-    private SearchResult search(State state, int g, int threshold, Set<String> visitedStates, int nextThreshold) {
+    private int search(int threshold) {
         visitedNode++;
-        
-        int f = g + calculateHeuristic(state);
+        int h = calculateHeuristic(work);
+        int f = estimate(work, h);
         if (f > threshold) {
-            return new SearchResult(null, f);
+            return f;
         }
-        
-        if (state.isReached(width, height, kRow, kCol, exitDirection)) {
-            return new SearchResult(state, threshold);
+        if (board.isReached(work)) {
+            depth = 0;
+            return FOUND;
         }
         
-        String stateHash = getStateHash(state);
-        visitedStates.add(stateHash);
-        int min = Integer.MAX_VALUE;
-        
-        List<State> successors = state.generateNextStates(width, height);
-        for (State successor : successors) {
-            String successorHash = getStateHash(successor);
-            if (!visitedStates.contains(successorHash)) {
-                SearchResult result = search(successor, successor.cost, threshold, visitedStates, nextThreshold);
-                if (result.state != null) {
-                    return result;
+        depth = 0;
+        push(-1, -1, h);
+        while (depth > 0) {
+            Frame top = frames[depth - 1];
+            if (!nextChild(top)) {
+                // Semua anak sudah dicoba: kembali ke parent
+                if (table != null && top.bound != Integer.MAX_VALUE) {
+                    table.put(work, top.bound - work.cost, threshold - work.cost);
+                }
+                depth--;
+                if (depth == 0) {
+                    return top.min;
                 }
-                min = Math.min(min, result.nextThreshold);
+                board.apply(work, top.car, top.previousOffset);
+                work.cost--;
+                frames[depth - 1].min = Math.min(frames[depth - 1].min, top.min);
+                frames[depth - 1].bound = Math.min(frames[depth - 1].bound, top.bound);
+                continue;
             }
+            
+            int car = top.cursor.car;
+            int previousOffset = work.offset(car);
+            board.apply(work, car, top.cursor.offset);
+            work.cost++;
+            visitedNode++;
+            
+            h = calculateHeuristic(top.snapshot, work, car);
+            f = work.cost + estimate(work, h);
+            if (f > threshold) {
+                top.min = Math.min(top.min, f);
+                top.bound = Math.min(top.bound, f);
+                board.apply(work, car, previousOffset);
+                work.cost--;
+                continue;
+            }
+            if (board.isReached(work)) {
+                goalCar = car;
+                return FOUND;
+            }
+            push(car, previousOffset, h);
         }
-        
-        visitedStates.remove(stateHash);
-        return new SearchResult(null, min);
+        return Integer.MAX_VALUE;
     }
     
     /**
-     * Calculates the heuristic value for the given state.
+     * Returns the lower bound on the remaining cost of a state: its heuristic value,
+     * raised to the bound backed up by an earlier search of the same state if that is higher.
      * 
      * @param state The state to evaluate
-     * @return The heuristic value representing estimated cost to goal
+     * @param h Heuristic value of the state
+     * @return Lower bound used for the f-value
      */
-    private int calculateHeuristic(State state) {
-        return heuristic.calculate(state, width, height, exitDirection);
+    private int estimate(PackedState state, int h) {
+        if (table != null) {
+            h = Math.max(h, table.get(state));
+        }
+        return h;
     }
     
     /**
-     * Creates a unique string representation of a state for tracking visited states.
+     * Opens a frame for the working state at the next depth.
      * 
-     * @param state The state to convert to a hash string
-     * @return A string uniquely identifying the state configuration
+     * @param car Index of the car moved to reach the working state, -1 for the root
+     * @param previousOffset Offset of that car before the move
+     * @param h Heuristic value of the working state
      */
-    private String getStateHash(State state) {
-        // A more efficient and reliable way of hashing the state 
-        // than relying on the default hashCode
-        StringBuilder sb = new StringBuilder();
-        
-        // Sort car IDs for consistent ordering
-        List<Character> carIds = new ArrayList<>(state.cars.keySet());
-        Collections.sort(carIds);
-        
-        for (char carId : carIds) {
-            sb.append(carId).append(":");
-            
-            // Append bitmask representation for each car
-            for (long mask : state.cars.get(carId).bitmask) {
-                sb.append(mask).append(",");
+    private void push(int car, int previousOffset, int h) {
+        if (depth == frames.length) {
+            Frame[] grown = Arrays.copyOf(frames, Math.max(64, depth * 2));
+            for (int i = depth; i < grown.length; i++) {
+                grown[i] = new Frame();
             }
-            sb.append(";");
+            frames = grown;
         }
-        
-        return sb.toString();
+        Frame frame = frames[depth++];
+        frame.snapshot.copyFrom(work);
+        frame.snapshot.h = h;
+        frame.car = car;
+        frame.previousOffset = previousOffset;
+        frame.min = Integer.MAX_VALUE;
+        frame.bound = Integer.MAX_VALUE;
+        frame.cursor.reset(work);
+    }
+    
+    /**
+     * Advances a frame's cursor to the next move that does not return to a state on the current path.
+     * A skipped move still counts toward the frame's bound with the heuristic value of the state it
+     * returns to, so a bound stored in the table never ignores a way out through the path.
+     * 
+     * @param frame Frame of the working state
+     * @return True if such a move exists
+     */
+    private boolean nextChild(Frame frame) {
+        while (frame.cursor.next()) {
+            int onPath = findOnPath(frame.cursor);
+            if (onPath < 0) return true;
+            int h = frames[onPath].snapshot.h;
+            if (h != Integer.MAX_VALUE) {
+                frame.bound = Math.min(frame.bound, work.cost + 1 + h);
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Finds the frame of the state on the current path that the move a cursor points at leads back to.
+     * 
+     * @param cursor Cursor positioned on a move
+     * @return Depth index of that frame, or -1 if the successor is not on the path
+     */
+    private int findOnPath(Board.MoveCursor cursor) {
+        for (int i = 0; i < depth; i++) {
+            if (cursor.leadsTo(frames[i].snapshot)) return i;
+        }
+        return -1;
+    }
+    
+    /**
+     * Builds the solution as a chain of packed states from the frames on the stack.
+     * Only called once a goal was found, so this is the only allocation of the search.
+     * 
+     * @return Goal state linked to the initial state through parent references
+     */
+    private PackedState buildPath() {
+        PackedState prev = null;
+        for (int i = 0; i < depth; i++) {
+            PackedState snapshot = frames[i].snapshot;
+            prev = new PackedState(snapshot.offsets.clone(), prev, frames[i].car, i, snapshot.fingerprint);
+        }
+        return new PackedState(work.offsets.clone(), prev, depth == 0 ? -1 : goalCar, depth, work.fingerprint);
+    }
+    
+    /**
+     * Calculates the heuristic value for the given state.
+     * 
+     * @param state The state to evaluate
+     * @return The heuristic value representing estimated cost to goal
+     */
+    private int calculateHeuristic(PackedState state) {
+        heuristicEvaluationCount++;
+        return heuristic.calculate(board, state);
+    }
+
+    /**
+     * Calculates the heuristic value of a successor from the value of its parent.
+     *
+     * @param parent Snapshot of the parent, with its heuristic value in h
+     * @param state The successor to evaluate
+     * @param car Index of the car moved from the parent to the successor
+     * @return The heuristic value representing estimated cost to goal
+     */
+    private int calculateHeuristic(PackedState parent, PackedState state, int car) {
+        heuristicEvaluationCount++;
+        return heuristic.update(board, parent, parent.h, state, car);
     }
     
     /**
@@ -158,21 +300,23 @@ public class IDAStar {
     }
     
     /**
-     * Container class for search results in IDA*.
+     * Returns the number of heuristic evaluations during the search.
+     * 
+     * @return The count of heuristic evaluations
      */
-    private class SearchResult {
-        State state;
-        int nextThreshold;
-        
-        /**
-         * Creates a search result with found state or next threshold.
-         * 
-         * @param state Found goal state or null if not found
-         * @param nextThreshold Next f-value threshold to try
-         */
-        SearchResult(State state, int nextThreshold) {
-            this.state = state;
-            this.nextThreshold = nextThreshold;
-        }
+    public int getHeuristicEvaluationCount() {
+        return heuristicEvaluationCount;
+    }
+    
+    /**
+     * Preallocated search frame for one depth.
+     */
+    private class Frame {
+        final PackedState snapshot = new PackedState(new byte[board.carCount], null, -1, 0, 0); // Salinan state pada kedalaman ini
+        final Board.MoveCursor cursor = board.newCursor();
+        int car; // Mobil yang digeser untuk mencapai kedalaman ini, untuk undo
+        int previousOffset;
+        int min; // f terkecil di atas threshold di antara anak-anaknya
+        int bound; // Batas bawah f, termasuk anak yang dilewati karena sudah ada di jalur
     }
 }
\ No newline at end of file
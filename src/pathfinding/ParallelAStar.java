@@ -0,0 +1,336 @@
+package pathfinding;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import util.Board;
+import util.PackedState;
+import util.State;
+import util.StateTable;
+import heuristic.Heuristic;
+
+/**
+ * Hash-distributed parallel A* (HDA*).
+ * Every state is owned by one worker thread, chosen from its fingerprint.
+ * Each worker keeps its own open list and closed table; successors owned by
+ * another worker are buffered and sent to that worker's inbox in batches.
+ * The search ends when no worker has a node below the best solution cost and
+ * no batch is in flight, so the result is as optimal as with {@link AStar}.
+ */
+public class ParallelAStar {
+    private static final int BATCH_SIZE = 64; // Jumlah state per kiriman antar worker
+    private static final int FLUSH_INTERVAL = 256; // Kirim buffer yang belum penuh setiap sekian ekspansi
+    private static final long IDLE_PARK_NANOS = 50_000;
+
+    private int width, height;
+    private int kRow, kCol;
+    private String exitDirection;
+    private Heuristic heuristic;
+    private int threadCount;
+    private Board board;
+    private Worker[] workers;
+
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicLong inFlight = new AtomicLong(); // State yang dikirim tapi belum diterima
+    private final AtomicLong wakeCount = new AtomicLong();
+    private volatile boolean finished;
+    private volatile PackedState incumbent; // Solusi terbaik sejauh ini
+    private volatile int incumbentCost;
+    private int visitedNodeCount;
+    private int heuristicEvaluationCount;
+
+    /**
+     * Constructs a parallel A* solver with specified parameters.
+     *
+     * @param width Width of the puzzle grid
+     * @param height Height of the puzzle grid
+     * @param kRow Row position of the exit
+     * @param kCol Column position of the exit
+     * @param exitDirection Direction of the exit path
+     * @param heuristic Heuristic function to use for evaluation, shared by all workers
+     * @param threadCount Number of worker threads
+     */
+    public ParallelAStar(int width, int height, int kRow, int kCol, String exitDirection, Heuristic heuristic, int threadCount) {
+        this.width = width;
+        this.height = height;
+        this.kRow = kRow;
+        this.kCol = kCol;
+        this.exitDirection = exitDirection;
+        this.heuristic = heuristic;
+        this.threadCount = Math.max(1, threadCount);
+    }
+
+    /**
+     * Finds a path from the initial state to the goal state using parallel A* search.
+     *
+     * @param initialState The starting state of the puzzle
+     * @return The goal state containing the solution path, or null if no solution exists
+     */
+    public State find(State initialState) {
+        board = new Board(initialState, width, height, kRow, kCol, exitDirection);
+        PackedState root = board.pack(initialState);
+
+        idleCount.set(0);
+        inFlight.set(0);
+        wakeCount.set(0);
+        finished = false;
+        incumbent = null;
+        incumbentCost = Integer.MAX_VALUE;
+
+        System.out.println("Using parallel A* with " + threadCount + " threads and heuristic: " + heuristic.getName());
+
+        workers = new Worker[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            workers[i] = new Worker(i);
+        }
+        inFlight.incrementAndGet();
+        workers[owner(root)].inbox.add(List.of(root));
+
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread(workers[i], "hda-worker-" + i);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                finished = true;
+            }
+        }
+
+        visitedNodeCount = 0;
+        heuristicEvaluationCount = 0;
+        for (Worker worker : workers) {
+            visitedNodeCount += worker.visited;
+            heuristicEvaluationCount += worker.evaluations;
+        }
+        workers = null;
+
+        if (incumbent == null) {
+            System.out.println("Goal state not reachable after exploring " + visitedNodeCount + " nodes.");
+            return null;
+        }
+
+        System.out.println("Goal state reached!");
+        System.out.println("Visited nodes: " + visitedNodeCount);
+        System.out.println("Heuristic evaluations: " + heuristicEvaluationCount);
+        System.out.println("Total cost (steps): " + incumbent.cost);
+        return board.unpackPath(incumbent);
+    }
+
+    /**
+     * Returns the number of nodes visited by all workers during the search.
+     *
+     * @return The count of visited nodes
+     */
+    public int getVisitedNodeCount() {
+        return visitedNodeCount;
+    }
+
+    /**
+     * Returns the number of heuristic evaluations by all workers during the search.
+     *
+     * @return The count of heuristic evaluations
+     */
+    public int getHeuristicEvaluationCount() {
+        return heuristicEvaluationCount;
+    }
+
+    /**
+     * Picks the worker that owns a state.
+     *
+     * @param state State to assign
+     * @return Index of the owning worker
+     */
+    private int owner(PackedState state) {
+        long h = state.fingerprint * 0x9E3779B97F4A7C15L;
+        return (int) Long.remainderUnsigned(h >>> 32, threadCount);
+    }
+
+    /**
+     * Records a goal state if it is cheaper than the best one found so far.
+     *
+     * @param goal Goal state reached by a worker
+     */
+    private synchronized void offerSolution(PackedState goal) {
+        if (goal.cost < incumbentCost) {
+            incumbent = goal;
+            incumbentCost = goal.cost;
+        }
+    }
+
+    /**
+     * Checks whether the whole search is done.
+     * All workers must be idle and no batch may be in flight; the wake counter
+     * is read before and after so a worker waking up in between is never missed.
+     *
+     * @return True if no worker can make progress anymore
+     */
+    private boolean isTerminated() {
+        long wakes = wakeCount.get();
+        return idleCount.get() == threadCount && inFlight.get() == 0 && wakeCount.get() == wakes;
+    }
+
+    /**
+     * Worker thread owning one partition of the state space.
+     */
+    private class Worker implements Runnable {
+        final int id;
+        final ConcurrentLinkedQueue<List<PackedState>> inbox = new ConcurrentLinkedQueue<>();
+        final PriorityQueue<PackedState> open = new PriorityQueue<>((s1, s2) -> Integer.compare(s1.f, s2.f));
+        final StateTable closed = new StateTable(board); // Maps state to lowest cost found
+        final List<PackedState>[] outbox; // Buffer per worker tujuan
+        final Board.MoveCursor cursor = board.newCursor();
+        int visited;
+        int evaluations;
+
+        /**
+         * Creates a worker with empty lists.
+         *
+         * @param id Index of this worker
+         */
+        @SuppressWarnings("unchecked")
+        Worker(int id) {
+            this.id = id;
+            this.outbox = (List<PackedState>[]) new List<?>[threadCount];
+            for (int i = 0; i < threadCount; i++) {
+                outbox[i] = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+
+        /**
+         * Runs the worker loop: take in received states, expand the best open node,
+         * and go idle when there is nothing below the incumbent cost.
+         */
+        @Override
+        public void run() {
+            boolean idle = false;
+            int expansions = 0;
+            while (!finished) {
+                boolean received = !inbox.isEmpty();
+                if (received && idle) {
+                    // Bangun dulu sebelum inFlight dikurangi, supaya terminasi tidak salah terdeteksi
+                    wakeCount.incrementAndGet();
+                    idleCount.decrementAndGet();
+                    idle = false;
+                }
+                if (received) {
+                    receive();
+                }
+
+                PackedState current = open.poll();
+                if (current != null && current.f < incumbentCost) {
+                    expand(current);
+                    if (++expansions % FLUSH_INTERVAL == 0) {
+                        flush();
+                    }
+                    continue;
+                }
+                if (current != null) {
+                    open.add(current); // Tidak bisa memperbaiki solusi sekarang, simpan untuk nanti
+                }
+
+                flush();
+                if (!idle) {
+                    idle = true;
+                    idleCount.incrementAndGet();
+                }
+                if (isTerminated()) {
+                    finished = true;
+                } else {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+        }
+
+        /**
+         * Inserts all received states that improve on the closed table into the open list.
+         */
+        private void receive() {
+            List<PackedState> batch;
+            while ((batch = inbox.poll()) != null) {
+                for (PackedState state : batch) {
+                    int known = closed.get(state);
+                    if (known == StateTable.NOT_FOUND || state.cost < known) {
+                        closed.put(state, state.cost);
+                        evaluations++;
+                        state.h = state.parent == null ? heuristic.calculate(board, state)
+                            : heuristic.update(board, state.parent, state.parent.h, state, state.moveCar);
+                        state.f = state.cost + state.h;
+                        open.add(state);
+                    }
+                }
+                inFlight.addAndGet(-batch.size());
+            }
+        }
+
+        /**
+         * Expands one node, keeping own successors and buffering the others.
+         *
+         * @param current Node taken from the open list
+         */
+        private void expand(PackedState current) {
+            int bestCost = closed.get(current);
+            if (bestCost != StateTable.NOT_FOUND && bestCost < current.cost) {
+                return;
+            }
+            visited++;
+
+            if (board.isReached(current)) {
+                offerSolution(current);
+                return;
+            }
+
+            int nextCost = current.cost + 1;
+            cursor.reset(current);
+            while (cursor.next()) {
+                PackedState successor = cursor.materialize();
+                int target = owner(successor);
+                if (target == id) {
+                    int known = closed.get(successor);
+                    if (known == StateTable.NOT_FOUND || nextCost < known) {
+                        closed.put(successor, nextCost);
+                        evaluations++;
+                        successor.h = heuristic.update(board, current, current.h, successor, successor.moveCar);
+                        successor.f = successor.cost + successor.h;
+                        open.add(successor);
+                    }
+                } else {
+                    send(target, successor);
+                }
+            }
+        }
+
+        /**
+         * Buffers a state for another worker and sends the buffer once it is full.
+         *
+         * @param target Index of the owning worker
+         * @param state State to send
+         */
+        private void send(int target, PackedState state) {
+            inFlight.incrementAndGet();
+            List<PackedState> buffer = outbox[target];
+            buffer.add(state);
+            if (buffer.size() >= BATCH_SIZE) {
+                workers[target].inbox.add(buffer);
+                outbox[target] = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+
+        /**
+         * Sends every non-empty buffer, called before the worker goes idle.
+         */
+        private void flush() {
+            for (int target = 0; target < threadCount; target++) {
+                if (!outbox[target].isEmpty()) {
+                    workers[target].inbox.add(outbox[target]);
+                    outbox[target] = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+        }
+    }
+}
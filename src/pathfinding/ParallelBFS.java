@@ -0,0 +1,251 @@
+package pathfinding;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import util.Board;
+import util.PackedState;
+import util.State;
+import util.StateTable;
+
+/**
+ * Level-synchronous parallel breadth-first search.
+ * Every move costs 1, so breadth-first layers give the same step count as {@link UCS}
+ * without a priority queue. Each layer is split into ranges that are expanded in a
+ * fork-join pool; the visited set is sharded by fingerprint with one lock per shard.
+ */
+public class ParallelBFS {
+    private static final int SHARD_COUNT = 64; // Harus pangkat dua
+    private static final int SPLIT_THRESHOLD = 256; // Ukuran potongan frontier per task
+
+    private int width, height;
+    private int kRow, kCol;
+    private String exitDirection;
+    private int threadCount;
+    private Board board;
+    private StateTable[] shards;
+    private ConcurrentLinkedQueue<PackedState> goals;
+    private final AtomicInteger visitedNodeCount = new AtomicInteger();
+
+    /**
+     * Constructs a parallel BFS solver with specified parameters.
+     *
+     * @param width Width of the puzzle grid
+     * @param height Height of the puzzle grid
+     * @param kRow Row position of the exit
+     * @param kCol Column position of the exit
+     * @param exitDirection Direction of the exit path
+     * @param threadCount Number of worker threads
+     */
+    public ParallelBFS(int width, int height, int kRow, int kCol, String exitDirection, int threadCount) {
+        this.width = width;
+        this.height = height;
+        this.kRow = kRow;
+        this.kCol = kCol;
+        this.exitDirection = exitDirection;
+        this.threadCount = Math.max(1, threadCount);
+    }
+
+    /**
+     * Finds the optimal path from the initial state to the goal state, one layer at a time.
+     * Goals are tested when a state is generated; if a layer holds several goals,
+     * the one with the lowest fingerprint is returned. Its path is rebuilt from the visited
+     * costs afterwards, so neither the goal nor the path depends on thread timing.
+     *
+     * @param initialState The starting state of the puzzle
+     * @return The goal state containing the solution path, or null if no solution exists
+     */
+    public State find(State initialState) {
+        board = new Board(initialState, width, height, kRow, kCol, exitDirection);
+        PackedState root = board.pack(initialState);
+        shards = new StateTable[SHARD_COUNT];
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            shards[i] = new StateTable(board);
+        }
+        goals = new ConcurrentLinkedQueue<>();
+        visitedNodeCount.set(0);
+
+        System.out.println("Using parallel BFS with " + threadCount + " threads");
+
+        if (board.isReached(root)) {
+            System.out.println("Goal state reached!");
+            System.out.println("Total cost (steps): 0");
+            return board.unpackPath(root);
+        }
+        claim(root);
+
+        ForkJoinPool pool = new ForkJoinPool(threadCount);
+        try {
+            List<PackedState> frontier = List.of(root);
+            while (!frontier.isEmpty()) {
+                frontier = pool.invoke(new ExpandTask(frontier, 0, frontier.size()));
+
+                if (!goals.isEmpty()) {
+                    PackedState goal = Collections.min(goals, (a, b) -> Long.compare(a.fingerprint, b.fingerprint));
+                    System.out.println("Goal state reached!");
+                    System.out.println("Visited nodes: " + visitedNodeCount.get());
+                    System.out.println("Total cost (steps): " + goal.cost);
+                    return board.unpackPath(rebuildPath(root, goal));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        System.out.println("Goal state not reachable.");
+        return null;
+    }
+
+    /**
+     * Returns the count of nodes expanded during the search.
+     *
+     * @return The number of visited nodes
+     */
+    public int getVisitedNodeCount() {
+        return visitedNodeCount.get();
+    }
+
+    /**
+     * Marks a state as visited if no thread has done so yet.
+     *
+     * @param state State to mark
+     * @return True if the state was new
+     */
+    private boolean claim(PackedState state) {
+        StateTable shard = shards[(int) (state.fingerprint >>> 58) & (SHARD_COUNT - 1)];
+        synchronized (shard) {
+            if (shard.contains(state)) return false;
+            shard.put(state, state.cost);
+            return true;
+        }
+    }
+
+    /**
+     * Checks whether the successor a cursor points at was already visited.
+     * Lets a thread skip known states without building them.
+     *
+     * @param cursor Cursor positioned on a move
+     * @return True if the successor is in the visited set
+     */
+    private boolean isVisited(Board.MoveCursor cursor) {
+        return costOf(cursor) != StateTable.NOT_FOUND;
+    }
+
+    /**
+     * Looks up the layer in which the successor a cursor points at was visited.
+     *
+     * @param cursor Cursor positioned on a move
+     * @return Cost of the successor, or {@link StateTable#NOT_FOUND} if it was not visited
+     */
+    private int costOf(Board.MoveCursor cursor) {
+        StateTable shard = shards[(int) (cursor.fingerprint >>> 58) & (SHARD_COUNT - 1)];
+        synchronized (shard) {
+            return shard.get(cursor);
+        }
+    }
+
+    /**
+     * Rebuilds the path to a goal independently of which thread claimed each state.
+     * Walking back from the goal, the neighbour with the lowest fingerprint among those
+     * visited one layer earlier is taken; the moves are then replayed from the initial state.
+     *
+     * @param root Initial state
+     * @param goal Goal state found by the search
+     * @return Goal state whose parent chain leads back to the initial state
+     * @throws IllegalStateException If the visited costs do not connect the goal to the initial state
+     */
+    private PackedState rebuildPath(PackedState root, PackedState goal) {
+        List<PackedState> path = new ArrayList<>();
+        path.add(goal);
+        Board.MoveCursor cursor = board.newCursor();
+        for (int cost = goal.cost - 1; cost > 0; cost--) {
+            PackedState best = null;
+            cursor.reset(path.get(path.size() - 1));
+            while (cursor.next()) {
+                if (costOf(cursor) == cost && (best == null || cursor.fingerprint < best.fingerprint)) {
+                    best = cursor.materialize();
+                }
+            }
+            if (best == null) {
+                throw new IllegalStateException("No visited predecessor at depth " + cost);
+            }
+            path.add(best);
+        }
+        Collections.reverse(path);
+
+        // Bangun ulang rantai parent dari state awal dengan langkah yang sebenarnya
+        PackedState current = root;
+        for (PackedState next : path) {
+            boolean found = false;
+            cursor.reset(current);
+            while (!found && cursor.next()) {
+                found = cursor.leadsTo(next);
+            }
+            if (!found) {
+                throw new IllegalStateException("No move leads to the next state of the path");
+            }
+            current = cursor.materialize();
+        }
+        return current;
+    }
+
+    /**
+     * Expands a range of the current layer and returns the new states in range order.
+     */
+    private class ExpandTask extends RecursiveTask<List<PackedState>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<PackedState> layer;
+        private final int from, to;
+
+        /**
+         * Creates a task for part of a layer.
+         *
+         * @param layer States of the current layer
+         * @param from First index, inclusive
+         * @param to Last index, exclusive
+         */
+        ExpandTask(List<PackedState> layer, int from, int to) {
+            this.layer = layer;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Splits large ranges in two, expands small ranges directly.
+         *
+         * @return Unvisited successors of the range
+         */
+        @Override
+        protected List<PackedState> compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                ExpandTask left = new ExpandTask(layer, from, mid);
+                left.fork();
+                List<PackedState> right = new ExpandTask(layer, mid, to).compute();
+                List<PackedState> next = left.join();
+                next.addAll(right);
+                return next;
+            }
+
+            List<PackedState> next = new ArrayList<>();
+            Board.MoveCursor cursor = board.newCursor();
+            for (int i = from; i < to; i++) {
+                cursor.reset(layer.get(i));
+                while (cursor.next()) {
+                    if (isVisited(cursor)) continue;
+                    PackedState successor = cursor.materialize();
+                    if (!claim(successor)) continue; // Thread lain lebih dulu
+                    if (cursor.leadsToGoal()) {
+                        goals.add(successor);
+                    }
+                    next.add(successor);
+                }
+            }
+            visitedNodeCount.addAndGet(to - from);
+            return next;
+        }
+    }
+}
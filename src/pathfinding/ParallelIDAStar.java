@@ -0,0 +1,321 @@
+package pathfinding;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import util.Board;
+import util.PackedState;
+import util.State;
+import heuristic.Heuristic;
+
+/**
+ * Parallel Iterative Deepening A*.
+ * Each threshold iteration splits the search tree into one task per node at
+ * shallow depth and runs the tasks on a work-stealing fork-join pool. Below the
+ * split depth every task runs the usual sequential depth-first search. All tasks
+ * stop as soon as one of them finds a goal within the current threshold.
+ */
+public class ParallelIDAStar {
+    private static final int SPLIT_DEPTH = 3; // Di bawah kedalaman ini pohon dipecah menjadi task
+
+    private int width, height;
+    private int kRow, kCol;
+    private String exitDirection;
+    private Heuristic heuristic;
+    private int threadCount;
+    private Board board;
+    private int threshold;
+    private final AtomicReference<PackedState> found = new AtomicReference<>();
+    private final AtomicInteger nextThreshold = new AtomicInteger();
+    private final AtomicInteger visitedNode = new AtomicInteger();
+    private final AtomicInteger heuristicEvaluationCount = new AtomicInteger();
+
+    /**
+     * Constructs a parallel IDA* solver with specified parameters.
+     *
+     * @param width Width of the puzzle grid
+     * @param height Height of the puzzle grid
+     * @param kRow Row position of the exit
+     * @param kCol Column position of the exit
+     * @param exitDirection Direction of the exit path
+     * @param heuristic Heuristic function to use for evaluation, shared by all threads
+     * @param threadCount Number of worker threads
+     */
+    public ParallelIDAStar(int width, int height, int kRow, int kCol, String exitDirection, Heuristic heuristic, int threadCount) {
+        this.width = width;
+        this.height = height;
+        this.kRow = kRow;
+        this.kCol = kCol;
+        this.exitDirection = exitDirection;
+        this.heuristic = heuristic;
+        this.threadCount = Math.max(1, threadCount);
+    }
+
+    /**
+     * Finds a path from the initial state to the goal state using parallel IDA* search.
+     *
+     * @param initialState The starting state of the puzzle
+     * @return The goal state containing the solution path, or null if no solution exists
+     */
+    public State find(State initialState) {
+        board = new Board(initialState, width, height, kRow, kCol, exitDirection);
+        PackedState root = board.pack(initialState);
+
+        found.set(null);
+        visitedNode.set(0);
+        heuristicEvaluationCount.set(0);
+        heuristicEvaluationCount.incrementAndGet();
+        threshold = heuristic.calculate(board, root);
+
+        System.out.println("Using parallel IDA* with " + threadCount + " threads and heuristic: " + heuristic.getName());
+
+        ForkJoinPool pool = new ForkJoinPool(threadCount);
+        try {
+            while (threshold < Integer.MAX_VALUE) {
+                System.out.println("Current threshold: " + threshold);
+                nextThreshold.set(Integer.MAX_VALUE);
+                pool.invoke(new SearchTask(root, 0));
+
+                PackedState goal = found.get();
+                if (goal != null) {
+                    System.out.println("Goal state reached!");
+                    System.out.println("Visited nodes: " + visitedNode.get());
+                    System.out.println("Heuristic evaluations: " + heuristicEvaluationCount.get());
+                    System.out.println("Total cost (steps): " + goal.cost);
+                    return board.unpackPath(goal);
+                }
+
+                threshold = nextThreshold.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        System.out.println("Goal state not reachable after exploring " + visitedNode.get() + " nodes.");
+        return null;
+    }
+
+    /**
+     * Returns the count of nodes visited by all threads during the search.
+     *
+     * @return The number of visited nodes
+     */
+    public int getVisitedNodeCount() {
+        return visitedNode.get();
+    }
+
+    /**
+     * Returns the number of heuristic evaluations by all threads during the search.
+     *
+     * @return The count of heuristic evaluations
+     */
+    public int getHeuristicEvaluationCount() {
+        return heuristicEvaluationCount.get();
+    }
+
+    /**
+     * Calculates the heuristic value of a node, from its parent's value unless it is the initial state.
+     *
+     * @param state Node linked to its parent
+     * @param parentH Heuristic value of the parent
+     * @return The heuristic value of the node
+     */
+    private int evaluate(PackedState state, int parentH) {
+        if (state.parent == null) return heuristic.calculate(board, state);
+        return heuristic.update(board, state.parent, parentH, state, state.moveCar);
+    }
+
+    /**
+     * Lowers the shared next threshold to a pruned f-value.
+     *
+     * @param f f-value that exceeded the current threshold
+     */
+    private void offerThreshold(int f) {
+        nextThreshold.accumulateAndGet(f, Math::min);
+    }
+
+    /**
+     * Search of the subtree below one node.
+     * Shallow nodes fork one task per child; deeper nodes are searched sequentially.
+     */
+    private class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final PackedState state;
+        private final int parentH;
+
+        /**
+         * Creates a task for the subtree of a node.
+         *
+         * @param state Root of the subtree, linked to its ancestors through parent references
+         * @param parentH Heuristic value of the node's parent, ignored for the initial state
+         */
+        SearchTask(PackedState state, int parentH) {
+            this.state = state;
+            this.parentH = parentH;
+        }
+
+        /**
+         * Checks the node against the threshold and either splits or searches its subtree.
+         */
+        @Override
+        protected void compute() {
+            if (found.get() != null) return;
+
+            if (state.cost >= SPLIT_DEPTH) {
+                new Searcher(state, parentH).run();
+                return;
+            }
+
+            visitedNode.incrementAndGet();
+            heuristicEvaluationCount.incrementAndGet();
+            int h = evaluate(state, parentH);
+            int f = state.cost + h;
+            if (f > threshold) {
+                offerThreshold(f);
+                return;
+            }
+            if (board.isReached(state)) {
+                found.compareAndSet(null, state);
+                return;
+            }
+
+            List<SearchTask> children = new ArrayList<>();
+            Board.MoveCursor cursor = board.newCursor();
+            cursor.reset(state);
+            while (cursor.next()) {
+                if (!isOnPath(cursor, state)) {
+                    children.add(new SearchTask(cursor.materialize(), h));
+                }
+            }
+            if (children.isEmpty()) return;
+            invokeAll(children);
+        }
+
+        /**
+         * Checks whether a move leads back to an ancestor of the node.
+         *
+         * @param cursor Cursor positioned on a move
+         * @param node Node being expanded
+         * @return True if the successor is on the path from the root
+         */
+        private boolean isOnPath(Board.MoveCursor cursor, PackedState node) {
+            for (PackedState cur = node; cur != null; cur = cur.parent) {
+                if (cursor.leadsTo(cur)) return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Sequential depth-first search owned by a single task, with its own path and cursors.
+     */
+    private class Searcher {
+        private final PackedState start;
+        private final int startParentH;
+        private PackedState[] path;
+        private int depth;
+        private final List<Board.MoveCursor> cursors = new ArrayList<>();
+        private int visited;
+        private int evaluations;
+        private int min = Integer.MAX_VALUE; // f terkecil yang melewati threshold
+
+        /**
+         * Creates a searcher whose path starts with the ancestors of a node.
+         *
+         * @param start Root of the subtree to search
+         * @param startParentH Heuristic value of the parent of the root
+         */
+        Searcher(PackedState start, int startParentH) {
+            List<PackedState> ancestors = new ArrayList<>();
+            for (PackedState cur = start.parent; cur != null; cur = cur.parent) {
+                ancestors.add(cur);
+            }
+            Collections.reverse(ancestors);
+            path = ancestors.toArray(new PackedState[Math.max(64, ancestors.size() * 2)]);
+            depth = ancestors.size();
+            this.start = start;
+            this.startParentH = startParentH;
+        }
+
+        /**
+         * Searches the subtree and publishes the counters and the next threshold.
+         */
+        void run() {
+            search(start, startParentH);
+            visitedNode.addAndGet(visited);
+            heuristicEvaluationCount.addAndGet(evaluations);
+            if (min != Integer.MAX_VALUE) {
+                offerThreshold(min);
+            }
+        }
+
+        /**
+         * Recursive depth-first search bounded by the current threshold.
+         *
+         * @param state Current state being explored
+         * @param parentH Heuristic value of the state's parent
+         * @return True if a goal was found by any thread
+         */
+        private boolean search(PackedState state, int parentH) {
+            if (found.get() != null) return true;
+            visited++;
+
+            evaluations++;
+            int h = evaluate(state, parentH);
+            int f = state.cost + h;
+            if (f > threshold) {
+                min = Math.min(min, f);
+                return false;
+            }
+            if (board.isReached(state)) {
+                found.compareAndSet(null, state);
+                return true;
+            }
+
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+            }
+            path[depth++] = state;
+
+            Board.MoveCursor cursor = cursorAt(depth - 1);
+            cursor.reset(state);
+            while (cursor.next()) {
+                if (!isOnPath(cursor) && search(cursor.materialize(), h)) {
+                    return true;
+                }
+            }
+
+            depth--;
+            return false;
+        }
+
+        /**
+         * Checks whether the move a cursor points at leads back to a state on the current path.
+         *
+         * @param cursor Cursor positioned on a move
+         * @return True if the successor is already on the path
+         */
+        private boolean isOnPath(Board.MoveCursor cursor) {
+            for (int i = 0; i < depth; i++) {
+                if (cursor.leadsTo(path[i])) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Returns the reusable move cursor for a search depth.
+         *
+         * @param level Search depth
+         * @return Cursor owned by that depth
+         */
+        private Board.MoveCursor cursorAt(int level) {
+            while (cursors.size() <= level) {
+                cursors.add(board.newCursor());
+            }
+            return cursors.get(level);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package pathfinding;
+
+import java.util.*;
+import util.Board;
+import util.PackedState;
+import util.State;
+import util.StateRanker;
+
+/**
+ * Retrograde analysis of a whole puzzle.
+ * First every placement reachable from the initial state is enumerated, then a
+ * breadth-first search runs backward from all reachable goal states at once.
+ * The exact number of moves to the exit of every reachable placement is stored
+ * in a dense byte array indexed by {@link StateRanker} rank, so after the build
+ * any state of the puzzle is answered with one array read.
+ */
+public class RetrogradeSolver {
+    public static final int UNSOLVABLE = -1;
+
+    private static final byte UNREACHED = (byte) 0xFF;
+    private static final byte NO_EXIT = (byte) 0xFE; // Terjangkau, tapi belum tersambung ke goal
+    private static final int MAX_DISTANCE = 0xFD;
+    private static final long MAX_TABLE_SIZE = Integer.MAX_VALUE - 8;
+
+    private int width, height;
+    private int kRow, kCol;
+    private String exitDirection;
+    private Board board;
+    private StateRanker ranker;
+    private byte[] distances;
+    private int reachableCount;
+    private int solvableCount;
+    private int maxDistance;
+
+    /**
+     * Constructs a retrograde solver with specified parameters.
+     *
+     * @param width Width of the puzzle grid
+     * @param height Height of the puzzle grid
+     * @param kRow Row position of the exit
+     * @param kCol Column position of the exit
+     * @param exitDirection Direction of the exit path
+     */
+    public RetrogradeSolver(int width, int height, int kRow, int kCol, String exitDirection) {
+        this.width = width;
+        this.height = height;
+        this.kRow = kRow;
+        this.kCol = kCol;
+        this.exitDirection = exitDirection;
+    }
+
+    /**
+     * Enumerates the state space reachable from a state and fills the distance table.
+     *
+     * @param initialState Any state of the puzzle
+     * @throws IllegalArgumentException If two cars of the state overlap
+     * @throws IllegalStateException If the rank space is too large for a dense table
+     */
+    public void build(State initialState) {
+        board = new Board(initialState, width, height, kRow, kCol, exitDirection);
+        PackedState root = board.pack(initialState);
+        if (board.hasOverlap(root)) {
+            throw new IllegalArgumentException("Cars overlap in the initial state");
+        }
+        ranker = new StateRanker(board, root);
+        if (ranker.size() > MAX_TABLE_SIZE) {
+            throw new IllegalStateException("State space too large for a dense table: " + ranker.size() + " ranks");
+        }
+        distances = new byte[(int) ranker.size()];
+        Arrays.fill(distances, UNREACHED);
+
+        // Tahap 1: semua state yang terjangkau, dalam urutan BFS
+        int[] queue = new int[1024];
+        int tail = 0;
+        int goalCount = 0;
+        int[] goals = new int[64];
+        PackedState work = new PackedState(new byte[board.carCount], null, -1, 0, 0);
+        Board.MoveCursor cursor = board.newCursor();
+
+        int start = (int) ranker.rank(root);
+        distances[start] = NO_EXIT;
+        queue[tail++] = start;
+        for (int head = 0; head < tail; head++) {
+            ranker.unrank(queue[head], work.offsets);
+            if (board.isReached(work)) {
+                if (goalCount == goals.length) goals = Arrays.copyOf(goals, goalCount * 2);
+                goals[goalCount++] = queue[head];
+            }
+            cursor.reset(work);
+            while (cursor.next()) {
+                int next = (int) ranker.rank(work, cursor.car, cursor.offset);
+                if (distances[next] == UNREACHED) {
+                    distances[next] = NO_EXIT;
+                    if (tail == queue.length) queue = Arrays.copyOf(queue, tail * 2);
+                    queue[tail++] = next;
+                }
+            }
+        }
+        reachableCount = tail;
+
+        // Tahap 2: BFS mundur dari semua goal; langkah bisa dibalik, jadi generator yang sama dipakai
+        tail = 0;
+        for (int i = 0; i < goalCount; i++) {
+            distances[goals[i]] = 0;
+            queue[tail++] = goals[i];
+        }
+        maxDistance = 0;
+        for (int head = 0; head < tail; head++) {
+            int distance = distances[queue[head]] & 0xFF;
+            maxDistance = Math.max(maxDistance, distance);
+            if (distance == MAX_DISTANCE) {
+                throw new IllegalStateException("Distance to exit exceeds " + MAX_DISTANCE + " moves");
+            }
+            ranker.unrank(queue[head], work.offsets);
+            cursor.reset(work);
+            while (cursor.next()) {
+                int next = (int) ranker.rank(work, cursor.car, cursor.offset);
+                if (distances[next] == NO_EXIT) {
+                    distances[next] = (byte) (distance + 1);
+                    queue[tail++] = next;
+                }
+            }
+        }
+        solvableCount = tail;
+
+        System.out.println("Reachable states: " + reachableCount);
+        System.out.println("Solvable states: " + solvableCount);
+        System.out.println("Hardest solvable state: " + maxDistance + " moves");
+    }
+
+    /**
+     * Looks up the exact number of moves from a state to the exit.
+     *
+     * @param state State of the puzzle the table was built for
+     * @return Number of moves, or {@link #UNSOLVABLE} if no goal can be reached or the state is unknown
+     */
+    public int distance(State state) {
+        return distance(board.pack(state));
+    }
+
+    /**
+     * Looks up the exact number of moves from a packed state to the exit.
+     *
+     * @param state Packed state on the board the table was built for
+     * @return Number of moves, or {@link #UNSOLVABLE} if no goal can be reached or the state is unknown
+     */
+    public int distance(PackedState state) {
+        long rank = ranker.rank(state);
+        if (rank < 0 || rank >= distances.length) return UNSOLVABLE;
+        int distance = distances[(int) rank] & 0xFF;
+        return distance > MAX_DISTANCE ? UNSOLVABLE : distance;
+    }
+
+    /**
+     * Builds the table and follows strictly decreasing distances from the initial state to the exit.
+     *
+     * @param initialState The starting state of the puzzle
+     * @return The goal state containing an optimal solution path, or null if no solution exists
+     */
+    public State find(State initialState) {
+        Board check = new Board(initialState, width, height, kRow, kCol, exitDirection);
+        PackedState start = check.pack(initialState);
+        if (check.hasOverlap(start)) {
+            // Sama seperti solver lain: state yang tumpang tindih tidak punya langkah
+            if (check.isReached(start)) return check.unpackPath(start);
+            System.out.println("Goal state not reachable after exploring 1 states.");
+            return null;
+        }
+
+        build(initialState);
+        PackedState current = board.pack(initialState);
+        int remaining = distance(current);
+        if (remaining == UNSOLVABLE) {
+            System.out.println("Goal state not reachable after exploring " + reachableCount + " states.");
+            return null;
+        }
+
+        Board.MoveCursor cursor = board.newCursor();
+        while (remaining > 0) {
+            cursor.reset(current);
+            while (cursor.next()) {
+                int rank = (int) ranker.rank(current, cursor.car, cursor.offset);
+                if ((distances[rank] & 0xFF) == remaining - 1) break;
+            }
+            current = cursor.materialize();
+            remaining--;
+        }
+
+        System.out.println("Goal state reached!");
+        System.out.println("Total cost (steps): " + current.cost);
+        return board.unpackPath(current);
+    }
+
+    /**
+     * Returns the number of states in the distance table, each analyzed once.
+     *
+     * @return The number of reachable states
+     */
+    public int getVisitedNodeCount() {
+        return reachableCount;
+    }
+
+    /**
+     * Returns the number of reachable states from which the exit can be reached.
+     *
+     * @return The number of solvable states
+     */
+    public int getSolvableCount() {
+        return solvableCount;
+    }
+
+    /**
+     * Returns the largest distance to the exit among all solvable states.
+     *
+     * @return Number of moves of the hardest state
+     */
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+}
@@ -0,0 +1,115 @@
+package pathfinding;
+
+import java.util.Arrays;
+import util.PackedState;
+
+/**
+ * Fixed-size transposition table for {@link IDAStar}.
+ * Stores a lower bound on the remaining cost of a state, keyed by its 64-bit fingerprint.
+ * The car offsets are kept alongside, so two states with the same fingerprint never share a bound.
+ * Slots are grouped in pairs; when both are taken, the entry searched with the
+ * smaller remaining depth is replaced, so the table never grows and keeps the
+ * bounds that were most expensive to compute.
+ */
+public class TranspositionTable {
+    public static final int UNKNOWN = -1;
+
+    private final int carCount;
+    private final long[] keys;
+    private final byte[] offsets;
+    private final int[] bounds; // UNKNOWN menandakan slot kosong
+    private final int[] drafts; // Sisa kedalaman (threshold - g) saat bound dihitung
+    private final int mask;
+
+    /**
+     * Creates an empty table.
+     *
+     * @param capacity Number of entries, rounded up to a power of two (at least 2)
+     * @param carCount Number of cars of the stored states
+     */
+    public TranspositionTable(int capacity, int carCount) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.carCount = carCount;
+        this.keys = new long[size];
+        this.offsets = new byte[size * carCount];
+        this.bounds = new int[size];
+        this.drafts = new int[size];
+        this.mask = size - 1;
+        Arrays.fill(bounds, UNKNOWN);
+    }
+
+    /**
+     * Looks up the stored lower bound of a state.
+     *
+     * @param state State to look up
+     * @return Lower bound on the cost to reach a goal, or {@link #UNKNOWN}
+     */
+    public int get(PackedState state) {
+        int slot = home(state.fingerprint);
+        if (holds(slot, state)) return bounds[slot];
+        slot++;
+        if (holds(slot, state)) return bounds[slot];
+        return UNKNOWN;
+    }
+
+    /**
+     * Stores a lower bound for a state.
+     * An existing entry for the same state keeps the larger bound; otherwise
+     * an empty slot of the pair is used, or the one with the smaller draft is replaced.
+     *
+     * @param state State the bound belongs to
+     * @param bound Lower bound on the cost to reach a goal
+     * @param draft Remaining depth of the search that produced the bound
+     */
+    public void put(PackedState state, int bound, int draft) {
+        int first = home(state.fingerprint);
+        int second = first + 1;
+        for (int slot = first; slot <= second; slot++) {
+            if (holds(slot, state)) {
+                bounds[slot] = Math.max(bounds[slot], bound);
+                drafts[slot] = Math.max(drafts[slot], draft);
+                return;
+            }
+        }
+
+        int victim;
+        if (bounds[first] == UNKNOWN) {
+            victim = first;
+        } else if (bounds[second] == UNKNOWN) {
+            victim = second;
+        } else {
+            victim = drafts[first] <= drafts[second] ? first : second;
+        }
+        keys[victim] = state.fingerprint;
+        System.arraycopy(state.offsets, 0, offsets, victim * carCount, carCount);
+        bounds[victim] = bound;
+        drafts[victim] = draft;
+    }
+
+    /**
+     * Checks whether a slot holds the entry of a state.
+     *
+     * @param slot Slot index
+     * @param state State to compare with
+     * @return True if the slot is taken by the same fingerprint and offsets
+     */
+    private boolean holds(int slot, PackedState state) {
+        if (bounds[slot] == UNKNOWN || keys[slot] != state.fingerprint) return false;
+        int base = slot * carCount;
+        for (int i = 0; i < carCount; i++) {
+            if (offsets[base + i] != state.offsets[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the first slot of the pair a fingerprint maps to.
+     *
+     * @param fingerprint Fingerprint of a state
+     * @return Even slot index
+     */
+    private int home(long fingerprint) {
+        long h = fingerprint * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask & ~1;
+    }
+}
@@ -2,19 +2,27 @@ package pathfinding;
 
 import java.util.*;
 
+import util.Board;
 import util.BoardPrinter;
+import util.PackedState;
+import util.PathStore;
 import util.State;
+import util.StateBitset;
+import util.StateTable;
 
 /**
  * Implementation of Uniform Cost Search algorithm for pathfinding.
  */
 public class UCS {
-    private PriorityQueue<State> queue;
-    private Map<String, Integer> costMap; // Maps state hash to lowest cost found
+    private Queue<PackedState> queue;
+    private StateTable costMap; // Maps state to lowest cost found
     private int width, height;
     private int kRow, kCol;
     private String exitDirection;
     private int visitedNodeCount;
+    private boolean compactPath; // Simpan pohon pencarian di PathStore
+    private boolean bitsetVisited; // Satu bit per state terurut, bukan tabel hash
+    private boolean goalTestOnGeneration; // Cek goal saat state dibangkitkan
     
     /**
      * Constructs a Uniform Cost Search solver with specified parameters.
@@ -26,53 +34,106 @@ public class UCS {
      * @param exitDirection Direction of the exit path
      */
     public UCS(int width, int height, int kRow, int kCol, String exitDirection) {
+        this(width, height, kRow, kCol, exitDirection, false);
+    }
+    
+    /**
+     * Constructs a Uniform Cost Search solver with a choice of open list.
+     * 
+     * @param width Width of the puzzle grid
+     * @param height Height of the puzzle grid
+     * @param kRow Row position of the exit
+     * @param kCol Column position of the exit
+     * @param exitDirection Direction of the exit path
+     * @param useBucketQueue True to use a {@link BucketQueue} instead of a binary heap
+     */
+    public UCS(int width, int height, int kRow, int kCol, String exitDirection, boolean useBucketQueue) {
         this.width = width;
         this.height = height;
         this.kRow = kRow;
         this.kCol = kCol;
         this.exitDirection = exitDirection;
         
-        // Use PriorityQueue with custom comparator to order states by cost
-        this.queue = new PriorityQueue<>(Comparator.comparingInt(state -> state.cost));
-        this.costMap = new HashMap<>();
+        if (useBucketQueue) {
+            // Buckets are indexed by f, which UCS sets to the path cost
+            this.queue = new BucketQueue();
+        } else {
+            // Use PriorityQueue with custom comparator to order states by cost
+            this.queue = new PriorityQueue<>(Comparator.comparingInt(state -> state.cost));
+        }
     }
 
     /**
      * Finds the optimal path from the initial state to the goal state using UCS.
+     * The search runs on packed states and the solution path is unpacked at the end.
      * 
      * @param initialState The starting state of the puzzle
      * @return The goal state containing the solution path, or null if no solution exists
      */
     public State find(State initialState) {
-        queue.add(initialState);
-        costMap.put(getStateHash(initialState), initialState.cost);
+        Board board = new Board(initialState, width, height, kRow, kCol, exitDirection);
+        PackedState root = board.pack(initialState);
+        StateBitset visited = bitsetVisited ? StateBitset.forBoard(board, root) : null;
+        if (bitsetVisited && visited == null) {
+            System.out.println("Too many states for a bitset, using a hash table");
+        }
+        costMap = visited == null ? new StateTable(board) : null;
+        Board.MoveCursor cursor = board.newCursor();
+        PathStore paths = compactPath ? new PathStore() : null;
+        if (paths != null) {
+            root.node = paths.add(PathStore.ROOT, 0);
+        }
+        
+        root.f = root.cost;
+        queue.add(root);
+        if (visited != null) {
+            visited.add(root);
+        } else {
+            costMap.put(root, root.cost);
+        }
         visitedNodeCount = 0;
+        if (goalTestOnGeneration && board.isReached(root)) {
+            return solution(board, root, initialState, paths);
+        }
 
         while (!queue.isEmpty()) {
-            State currentState = queue.poll();
+            PackedState currentState = queue.poll();
             visitedNodeCount++;
             
-            String stateHash = getStateHash(currentState);
-            if (costMap.containsKey(stateHash) && costMap.get(stateHash) < currentState.cost) {
-            continue;
+            if (visited == null) {
+                int bestCost = costMap.get(currentState);
+                if (bestCost != StateTable.NOT_FOUND && bestCost < currentState.cost) {
+                    continue;
+                }
             }
             
-            if (currentState.isReached(width, height, kRow, kCol, exitDirection)) {
-            System.out.println("Goal state reached!");
-            System.out.println("Visited nodes: " + visitedNodeCount);
-            System.out.println("Total cost (steps): " + currentState.cost);
-            return currentState;
+            if (!goalTestOnGeneration && board.isReached(currentState)) {
+                return solution(board, currentState, initialState, paths);
             }
             
-            List<State> successors = currentState.generateNextStates(width, height);
-            for (State successor : successors) {
-            String successorHash = getStateHash(successor);
-            
-            if (!costMap.containsKey(successorHash) || successor.cost < costMap.get(successorHash)) {
-                costMap.put(successorHash, successor.cost);
+            int nextCost = currentState.cost + 1;
+            cursor.reset(currentState);
+            while (cursor.next()) {
+                if (visited != null) {
+                    // Setiap langkah berbiaya 1, jadi kunjungan pertama sudah yang termurah
+                    if (visited.contains(cursor)) continue;
+                } else {
+                    int successorCost = costMap.get(cursor);
+                    if (successorCost != StateTable.NOT_FOUND && nextCost >= successorCost) continue;
+                }
+                
+                PackedState successor = paths == null ? cursor.materialize() : cursor.materialize(paths);
+                if (visited != null) {
+                    visited.add(successor);
+                } else {
+                    costMap.put(successor, successor.cost);
+                }
+                successor.f = successor.cost;
+                if (goalTestOnGeneration && cursor.leadsToGoal()) {
+                    return solution(board, successor, initialState, paths);
+                }
                 queue.add(successor);
             }
-            }
         }
         
         System.out.println("Goal state not reachable.");
@@ -80,38 +141,62 @@ public class UCS {
     }
     
     /**
-     * Returns the count of nodes visited during the search.
+     * Chooses how the search tree is kept.
+     * With a compact path store, nodes hold only a parent index and a packed move,
+     * and the solution is replayed from the initial state afterwards.
      * 
-     * @return The number of visited nodes
+     * @param compactPath True to use a {@link PathStore} instead of parent references
      */
-    public int getVisitedNodeCount() {
-        return visitedNodeCount;
+    public void setCompactPath(boolean compactPath) {
+        this.compactPath = compactPath;
     }
     
     /**
-     * Creates a unique string representation of a state for use in the cost map.
+     * Chooses how visited states are remembered.
+     * With a bitset, each state is ranked into a dense index and marked with one bit,
+     * which needs no hashing and far less memory on small boards. Boards whose
+     * bitset does not fit in the heap fall back to the hash table.
      * 
-     * @param state The state to convert to a hash string
-     * @return A string uniquely identifying the state configuration
+     * @param bitsetVisited True to use a {@link StateBitset} instead of a {@link StateTable}
      */
-    private String getStateHash(State state) {
-        // A more efficient and reliable way of hashing the state 
-        // than relying on the default hashCode
-        StringBuilder sb = new StringBuilder();
-        
-        // Sort car IDs for consistent ordering
-        List<Character> carIds = new ArrayList<>(state.cars.keySet());
-        Collections.sort(carIds);
-        
-        for (char carId : carIds) {
-            sb.append(carId).append(":");
-            
-            for (long mask : state.cars.get(carId).bitmask) {
-                sb.append(mask).append(",");
-            }
-            sb.append(";");
-        }
-        
-        return sb.toString();
+    public void setBitsetVisited(boolean bitsetVisited) {
+        this.bitsetVisited = bitsetVisited;
+    }
+    
+    /**
+     * Chooses when states are tested against the goal.
+     * Every move costs 1, so states come off the queue in breadth-first layers and
+     * the first goal generated is already a cheapest one. Testing at generation
+     * returns it without expanding the rest of the layer before it.
+     * 
+     * @param goalTestOnGeneration True to test successors when they are generated instead of when they are expanded
+     */
+    public void setGoalTestOnGeneration(boolean goalTestOnGeneration) {
+        this.goalTestOnGeneration = goalTestOnGeneration;
+    }
+    
+    /**
+     * Reports a goal state and unpacks its path.
+     * 
+     * @param board Board descriptor of the search
+     * @param goal Goal state that was reached
+     * @param initialState The starting state of the puzzle
+     * @param paths Path store of the search, or null if nodes keep parent references
+     * @return The goal state containing the solution path
+     */
+    private State solution(Board board, PackedState goal, State initialState, PathStore paths) {
+        System.out.println("Goal state reached!");
+        System.out.println("Visited nodes: " + visitedNodeCount);
+        System.out.println("Total cost (steps): " + goal.cost);
+        return paths == null ? board.unpackPath(goal) : board.unpackPath(goal, initialState, paths);
+    }
+    
+    /**
+     * Returns the count of nodes visited during the search.
+     * 
+     * @return The number of visited nodes
+     */
+    public int getVisitedNodeCount() {
+        return visitedNodeCount;
     }
 }
\ No newline at end of file
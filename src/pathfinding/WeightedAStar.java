@@ -0,0 +1,141 @@
+package pathfinding;
+
+import java.util.*;
+import util.Board;
+import util.PackedState;
+import util.State;
+import util.StateTable;
+import heuristic.Heuristic;
+
+/**
+ * Weighted A* search, ordering nodes by f = g + w * h.
+ * With an admissible heuristic the returned step count is at most w times the optimum;
+ * a larger weight makes the search greedier and usually much faster.
+ */
+public class WeightedAStar {
+    private PriorityQueue<PackedState> queue;
+    private StateTable costMap; // Maps state to lowest cost found
+    private int width, height;
+    private int kRow, kCol;
+    private String exitDirection;
+    private Heuristic heuristic;
+    private double weight;
+    private Board board;
+    private int visitedNodeCount;
+    private int heuristicEvaluationCount;
+
+    /**
+     * Constructs a weighted A* solver with specified parameters.
+     *
+     * @param width Width of the puzzle grid
+     * @param height Height of the puzzle grid
+     * @param kRow Row position of the exit
+     * @param kCol Column position of the exit
+     * @param exitDirection Direction of the exit path
+     * @param heuristic Heuristic function to use for evaluation
+     * @param weight Suboptimality bound w, at least 1
+     */
+    public WeightedAStar(int width, int height, int kRow, int kCol, String exitDirection, Heuristic heuristic, double weight) {
+        this.width = width;
+        this.height = height;
+        this.kRow = kRow;
+        this.kCol = kCol;
+        this.exitDirection = exitDirection;
+        this.heuristic = heuristic;
+        this.weight = Math.max(1.0, weight);
+
+        // Order on g + w * h, lower h first on ties
+        this.queue = new PriorityQueue<>((s1, s2) -> {
+            int byKey = Double.compare(s1.cost + this.weight * s1.h, s2.cost + this.weight * s2.h);
+            return byKey != 0 ? byKey : Integer.compare(s1.h, s2.h);
+        });
+    }
+
+    /**
+     * Finds a path whose step count is within the weight of the optimum.
+     *
+     * @param initialState The starting state of the puzzle
+     * @return The goal state containing the solution path, or null if no solution exists
+     */
+    public State find(State initialState) {
+        board = new Board(initialState, width, height, kRow, kCol, exitDirection);
+        PackedState root = board.pack(initialState);
+        costMap = new StateTable(board);
+        Board.MoveCursor cursor = board.newCursor();
+        queue.clear();
+        visitedNodeCount = 0;
+        heuristicEvaluationCount = 0;
+
+        evaluate(root, null);
+        queue.add(root);
+        costMap.put(root, root.cost);
+
+        System.out.println("Using weighted A* (w = " + weight + ") with heuristic: " + heuristic.getName());
+
+        while (!queue.isEmpty()) {
+            PackedState currentState = queue.poll();
+            visitedNodeCount++;
+
+            int bestCost = costMap.get(currentState);
+            if (bestCost != StateTable.NOT_FOUND && bestCost < currentState.cost) {
+                continue;
+            }
+
+            if (board.isReached(currentState)) {
+                System.out.println("Goal state reached!");
+                System.out.println("Visited nodes: " + visitedNodeCount);
+                System.out.println("Heuristic evaluations: " + heuristicEvaluationCount);
+                System.out.println("Total cost (steps): " + currentState.cost);
+                return board.unpackPath(currentState);
+            }
+
+            // Node yang biayanya membaik dibuka lagi, supaya batas w tetap terjamin
+            int nextCost = currentState.cost + 1;
+            cursor.reset(currentState);
+            while (cursor.next()) {
+                int successorCost = costMap.get(cursor);
+                if (successorCost == StateTable.NOT_FOUND || nextCost < successorCost) {
+                    PackedState successor = cursor.materialize();
+                    costMap.put(successor, successor.cost);
+                    evaluate(successor, currentState);
+                    queue.add(successor);
+                }
+            }
+        }
+
+        System.out.println("Goal state not reachable after exploring " + visitedNodeCount + " nodes.");
+        return null;
+    }
+
+    /**
+     * Returns the count of nodes visited during the search.
+     *
+     * @return The number of visited nodes
+     */
+    public int getVisitedNodeCount() {
+        return visitedNodeCount;
+    }
+
+    /**
+     * Returns the number of heuristic evaluations during the search.
+     *
+     * @return The count of heuristic evaluations
+     */
+    public int getHeuristicEvaluationCount() {
+        return heuristicEvaluationCount;
+    }
+
+    /**
+     * Calculates the heuristic value for the given state and caches h and f on it.
+     * A successor is evaluated from its parent's value, see {@link Heuristic#update}.
+     *
+     * @param state The state to evaluate
+     * @param parent The state it was generated from, or null for the initial state
+     */
+    private void evaluate(PackedState state, PackedState parent) {
+        heuristicEvaluationCount++;
+        state.h = parent == null ? heuristic.calculate(board, state)
+            : heuristic.update(board, parent, parent.h, state, state.moveCar);
+        state.f = state.cost + state.h;
+    }
+}
@@ -0,0 +1,37 @@
+package test;
+
+import java.util.ArrayList;
+import java.util.List;
+import heuristic.BlockingCars;
+import pathfinding.ARAStar;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks that ARA* without a time limit ends with an optimal solution and that
+ * every solution it publishes on the way is valid and better than the last.
+ */
+public class ARAStarTest {
+    static void run() throws Exception {
+        for (String name : TestSupport.allPuzzles()) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            int optimal = TestSupport.optimalCost(name);
+            ARAStar solver = new ARAStar(p.width, p.height, p.kRow, p.kCol, p.exitDirection, new BlockingCars(), 3.0, 0.5, 0);
+            List<State> published = new ArrayList<>();
+            solver.setSolutionListener(published::add);
+
+            State goal = TestSupport.quietly(() -> solver.find(p.initialState));
+            TestSupport.expectSolution(name + " ARA*", p, goal, optimal);
+            if (goal == null) continue;
+
+            TestSupport.check(name + " ARA*: bound is 1 at the end", solver.getBound() == 1.0);
+            TestSupport.checkEquals(name + " ARA*: solution count", published.size(), solver.getSolutionCount());
+            boolean improving = true;
+            for (int i = 0; i < published.size(); i++) {
+                improving &= TestSupport.isValidPath(p, published.get(i));
+                improving &= i == 0 || published.get(i).cost < published.get(i - 1).cost;
+            }
+            TestSupport.check(name + " ARA*: published solutions are valid and improving", improving);
+        }
+    }
+}
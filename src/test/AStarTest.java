@@ -0,0 +1,34 @@
+package test;
+
+import heuristic.BlockingCars;
+import heuristic.Heuristic;
+import heuristic.PatternDatabase;
+import pathfinding.AStar;
+import pathfinding.GreedyBFS;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks A* with admissible heuristics against the known optimal costs,
+ * and that greedy best-first search returns a valid path.
+ */
+public class AStarTest {
+    static void run() throws Exception {
+        for (String name : TestSupport.allPuzzles()) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            int optimal = TestSupport.optimalCost(name);
+            for (Heuristic heuristic : new Heuristic[] {new BlockingCars(), new PatternDatabase()}) {
+                State goal = TestSupport.quietly(() -> new AStar(p.width, p.height, p.kRow, p.kCol, p.exitDirection, heuristic).find(p.initialState));
+                TestSupport.expectSolution(name + " A* " + heuristic.getName(), p, goal, optimal);
+            }
+
+            // Greedy tidak menjamin optimal, cukup jalurnya sah
+            State greedy = TestSupport.quietly(() -> new GreedyBFS(p.width, p.height, p.kRow, p.kCol, p.exitDirection, new BlockingCars()).find(p.initialState));
+            if (optimal == TestSupport.UNSOLVABLE) {
+                TestSupport.check(name + " greedy: no solution", greedy == null);
+            } else {
+                TestSupport.check(name + " greedy: path is valid", greedy != null && TestSupport.isValidPath(p, greedy));
+            }
+        }
+    }
+}
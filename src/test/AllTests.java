@@ -0,0 +1,42 @@
+package test;
+
+/**
+ * Runs every solver check in one JVM and exits with a non-zero status if any failed.
+ * Run from the project root so the puzzles under test/ are found.
+ */
+public class AllTests {
+    /**
+     * Runs all checks.
+     *
+     * @param args Command line arguments (not used)
+     * @throws Exception If a puzzle cannot be loaded
+     */
+    public static void main(String[] args) throws Exception {
+        PackedStateTest.run();
+        StateTableTest.run();
+        AStarTest.run();
+        BucketQueueTest.run();
+        SuccessorTest.run();
+        ZobristTest.run();
+        MoveCursorTest.run();
+        CompactPathTest.run();
+        MemoryBudgetTest.run();
+        ParallelAStarTest.run();
+        ParallelBFSTest.run();
+        ParallelIDAStarTest.run();
+        IDAStarTest.run();
+        TranspositionTableTest.run();
+        ARAStarTest.run();
+        BoundedSuboptimalTest.run();
+        BidirectionalSearchTest.run();
+        RetrogradeSolverTest.run();
+        StateBitsetTest.run();
+        ExternalBFSTest.run();
+        PatternDatabaseTest.run();
+        IncrementalHeuristicTest.run();
+        CarAtTest.run();
+        CarExtentTest.run();
+        GoalTestTest.run();
+        TestSupport.finish();
+    }
+}
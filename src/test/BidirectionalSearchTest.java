@@ -0,0 +1,117 @@
+package test;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import pathfinding.BidirectionalSearch;
+import util.Board;
+import util.PackedState;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks the goal set the backward search is seeded from, and that bidirectional
+ * search finds optimal solutions with and without the backward side.
+ */
+public class BidirectionalSearchTest {
+    private static final int REACHABLE_LIMIT = 200000;
+
+    static void run() throws Exception {
+        for (String name : TestSupport.allPuzzles()) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            int optimal = TestSupport.optimalCost(name);
+
+            // Setiap state goal harus sah, unik, dan memang mencapai pintu keluar
+            Board board = new Board(p.initialState, p.width, p.height, p.kRow, p.kCol, p.exitDirection);
+            PackedState root = board.pack(p.initialState);
+            List<PackedState> goals = board.goalStates(root, 1 << 20);
+            TestSupport.check(name + ": goal set fits the limit", goals != null);
+            if (goals == null) continue;
+            boolean validGoals = true;
+            for (PackedState goal : goals) {
+                validGoals &= !overlaps(board, goal) && keepsLaneOrder(board, root, goal) && board.isReached(goal)
+                    && board.unpack(goal).isReached(p.width, p.height, p.kRow, p.kCol, p.exitDirection);
+            }
+            TestSupport.check(name + ": goal states are valid and keep the lane order", validGoals);
+            TestSupport.checkEquals(name + ": goal states are distinct", goals.size(), new HashSet<>(goals).size());
+
+            // Semua goal yang bisa dicapai harus ada di himpunan goal
+            Set<PackedState> reachable = reachableGoals(board, root);
+            if (reachable != null) {
+                TestSupport.check(name + ": every reachable goal is in the goal set", new HashSet<>(goals).containsAll(reachable));
+            }
+
+            BidirectionalSearch both = new BidirectionalSearch(p.width, p.height, p.kRow, p.kCol, p.exitDirection);
+            State goal = TestSupport.quietly(() -> both.find(p.initialState));
+            TestSupport.expectSolution(name + " bidirectional", p, goal, optimal);
+
+            BidirectionalSearch forwardOnly = new BidirectionalSearch(p.width, p.height, p.kRow, p.kCol, p.exitDirection);
+            forwardOnly.setGoalLimit(0);
+            State forwardGoal = TestSupport.quietly(() -> forwardOnly.find(p.initialState));
+            TestSupport.expectSolution(name + " bidirectional, forward only", p, forwardGoal, optimal);
+        }
+    }
+
+    /**
+     * Checks whether two cars of a state cover the same cell.
+     *
+     * @param board Board descriptor
+     * @param state State to check
+     * @return True if the cars overlap
+     */
+    private static boolean overlaps(Board board, PackedState state) {
+        int cells = 0;
+        for (long bits : board.occupancy(state)) {
+            cells += Long.bitCount(bits);
+        }
+        int expected = 0;
+        for (int car = 0; car < board.carCount; car++) {
+            expected += board.length[car];
+        }
+        return cells != expected;
+    }
+
+    /**
+     * Checks that no car passed another car of its lane compared with the initial state.
+     *
+     * @param board Board descriptor
+     * @param initial Initial state
+     * @param state State to check
+     * @return True if every lane keeps its car order
+     */
+    private static boolean keepsLaneOrder(Board board, PackedState initial, PackedState state) {
+        for (int a = 0; a < board.carCount; a++) {
+            for (int b = 0; b < board.carCount; b++) {
+                if (a == b || board.horizontal[a] != board.horizontal[b] || board.lane[a] != board.lane[b]) continue;
+                if (initial.offset(a) == initial.offset(b)) continue; // Papan awal yang tumpang tindih
+                if ((initial.offset(a) < initial.offset(b)) != (state.offset(a) < state.offset(b))) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collects the goal states reachable from the initial state with a full breadth-first search.
+     *
+     * @param board Board descriptor
+     * @param root Initial state
+     * @return Reachable goal states, or null if the state space is larger than the search limit
+     */
+    private static Set<PackedState> reachableGoals(Board board, PackedState root) {
+        Set<PackedState> seen = new HashSet<>();
+        Set<PackedState> goals = new HashSet<>();
+        ArrayDeque<PackedState> queue = new ArrayDeque<>();
+        seen.add(root);
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            if (seen.size() > REACHABLE_LIMIT) return null;
+            PackedState state = queue.poll();
+            if (board.isReached(state)) goals.add(state);
+            for (PackedState next : board.generateNextStates(state)) {
+                if (seen.add(next)) queue.add(next);
+            }
+        }
+        return goals;
+    }
+}
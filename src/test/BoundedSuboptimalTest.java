@@ -0,0 +1,53 @@
+package test;
+
+import heuristic.BlockingCars;
+import heuristic.Heuristic;
+import heuristic.PatternDatabase;
+import pathfinding.FocalSearch;
+import pathfinding.WeightedAStar;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks that weighted A* and focal search stay within their suboptimality bound,
+ * and report unsolvable boards, including one whose primary car is perpendicular to the exit.
+ */
+public class BoundedSuboptimalTest {
+    private static final double[] WEIGHTS = {1.0, 1.5, 2.0};
+
+    static void run() throws Exception {
+        for (String name : TestSupport.allPuzzles()) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            int optimal = TestSupport.optimalCost(name);
+            for (Heuristic heuristic : new Heuristic[] {new BlockingCars(), new PatternDatabase()}) {
+                for (double weight : WEIGHTS) {
+                    String label = " w = " + weight + " " + heuristic.getName();
+                    State weighted = TestSupport.quietly(() -> new WeightedAStar(p.width, p.height, p.kRow, p.kCol, p.exitDirection, heuristic, weight).find(p.initialState));
+                    expectWithinBound(name + " weighted A*" + label, p, weighted, optimal, weight);
+                    State focal = TestSupport.quietly(() -> new FocalSearch(p.width, p.height, p.kRow, p.kCol, p.exitDirection, heuristic, weight).find(p.initialState));
+                    expectWithinBound(name + " focal search" + label, p, focal, optimal, weight);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that a solution is valid and at most the weight times the optimal cost.
+     *
+     * @param label Description of the run
+     * @param p Puzzle that was solved
+     * @param goal Goal state returned by the solver, or null
+     * @param optimal Optimal step count, or {@link TestSupport#UNSOLVABLE}
+     * @param weight Suboptimality bound of the solver
+     */
+    private static void expectWithinBound(String label, Parser.ParsedResult p, State goal, int optimal, double weight) {
+        if (optimal == TestSupport.UNSOLVABLE || weight == 1.0) {
+            TestSupport.expectSolution(label, p, goal, optimal);
+            return;
+        }
+        int limit = (int) Math.floor(weight * optimal + 1e-9);
+        TestSupport.check(label + ": expected cost at most " + limit + ", got " + (goal == null ? "no solution" : goal.cost),
+            goal != null && goal.cost >= optimal && goal.cost <= limit);
+        TestSupport.check(label + ": path is valid", goal != null && TestSupport.isValidPath(p, goal));
+    }
+}
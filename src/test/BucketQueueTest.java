@@ -0,0 +1,65 @@
+package test;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+import heuristic.BlockingCars;
+import pathfinding.AStar;
+import pathfinding.BucketQueue;
+import pathfinding.UCS;
+import util.PackedState;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks that the bucket open list serves states in the same (f, h) order as a
+ * binary heap, and that A* and UCS find the same costs with either open list.
+ */
+public class BucketQueueTest {
+    static void run() throws Exception {
+        checkOrder();
+
+        for (String name : TestSupport.allPuzzles()) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            int optimal = TestSupport.optimalCost(name);
+            State ucs = TestSupport.quietly(() -> new UCS(p.width, p.height, p.kRow, p.kCol, p.exitDirection, true).find(p.initialState));
+            TestSupport.expectSolution(name + " UCS with buckets", p, ucs, optimal);
+            State aStar = TestSupport.quietly(() -> new AStar(p.width, p.height, p.kRow, p.kCol, p.exitDirection, new BlockingCars(), true).find(p.initialState));
+            TestSupport.expectSolution(name + " A* with buckets", p, aStar, optimal);
+        }
+    }
+
+    /**
+     * Interleaves random insertions and removals on a bucket queue and a heap
+     * and compares the (f, h) of every removed state.
+     */
+    private static void checkOrder() {
+        Comparator<PackedState> byFThenH = (a, b) -> a.f != b.f ? Integer.compare(a.f, b.f) : Integer.compare(a.h, b.h);
+        BucketQueue buckets = new BucketQueue();
+        PriorityQueue<PackedState> heap = new PriorityQueue<>(byFThenH);
+        Random random = new Random(42);
+        boolean sameOrder = true;
+
+        for (int i = 0; i < 20000; i++) {
+            if (random.nextInt(3) > 0 || heap.isEmpty()) {
+                PackedState state = new PackedState(new byte[0], null, -1, random.nextInt(40), i);
+                // Sesekali h tak hingga, yang harus dilayani paling akhir
+                state.h = random.nextInt(50) == 0 ? Integer.MAX_VALUE : random.nextInt(12);
+                state.f = state.h == Integer.MAX_VALUE ? Integer.MAX_VALUE : state.cost + state.h;
+                buckets.offer(state);
+                heap.offer(state);
+            } else {
+                PackedState expected = heap.poll();
+                PackedState peeked = buckets.peek();
+                PackedState actual = buckets.poll();
+                sameOrder &= peeked == actual && byFThenH.compare(expected, actual) == 0;
+            }
+            sameOrder &= buckets.size() == heap.size();
+        }
+        while (!heap.isEmpty()) {
+            sameOrder &= byFThenH.compare(heap.poll(), buckets.poll()) == 0;
+        }
+        TestSupport.check("bucket queue serves states in (f, h) order", sameOrder);
+        TestSupport.check("bucket queue is empty at the end", buckets.isEmpty() && buckets.poll() == null);
+    }
+}
@@ -0,0 +1,43 @@
+package test;
+
+import util.Car;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks the cell-to-car index of {@link State} against a scan over all cars.
+ */
+public class CarAtTest {
+    private static final String[] PUZZLES = {"atas", "testwin", "exp", "misteri4", "testsusah"};
+    private static final int STATES_PER_PUZZLE = 1000;
+
+    static void run() throws Exception {
+        for (String name : PUZZLES) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            boolean sameOwner = true;
+            for (State state : TestSupport.sampleStates(p, STATES_PER_PUZZLE)) {
+                for (int cell = 0; cell < p.width * p.height; cell++) {
+                    sameOwner &= state.carAt(cell) == scanForCar(state, cell);
+                }
+                sameOwner &= state.carAt(-1) == null && state.carAt(Integer.MAX_VALUE) == null;
+            }
+            TestSupport.check(name + ": carAt matches a scan over the cars", sameOwner);
+        }
+    }
+
+    /**
+     * Finds the car covering a cell by testing every car's bitmask.
+     *
+     * @param state State to search
+     * @param cell Cell index
+     * @return Car on the cell, or null if the cell is empty
+     */
+    private static Car scanForCar(State state, int cell) {
+        for (Car car : state.cars.values()) {
+            if ((car.bitmask[cell / 64] & (1L << (cell % 64))) != 0) {
+                return car;
+            }
+        }
+        return null;
+    }
+}
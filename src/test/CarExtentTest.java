@@ -0,0 +1,71 @@
+package test;
+
+import heuristic.Distance;
+import util.Car;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks the extent queries of {@link Car} and {@link Distance} against a scan over every cell.
+ */
+public class CarExtentTest {
+    private static final String[] PUZZLES = {"atas", "testwin", "exp", "misteri4", "testsusah"};
+    private static final int STATES_PER_PUZZLE = 1000;
+
+    static void run() throws Exception {
+        for (String name : PUZZLES) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            boolean sameExtent = true;
+            for (State state : TestSupport.sampleStates(p, STATES_PER_PUZZLE)) {
+                for (Car car : state.cars.values()) {
+                    sameExtent &= matchesScan(car, p.width, p.height);
+                }
+            }
+            TestSupport.check(name + ": car extents match a cell scan", sameExtent);
+        }
+
+        // Bentuk yang tidak lurus dan mobil kosong, untuk jalur selain satu baris
+        int width = 9, height = 9;
+        long[] bent = new long[2];
+        for (int cell : new int[] {4, 12, 13, 62, 63, 64, 70}) {
+            bent[cell / 64] |= 1L << (cell % 64);
+        }
+        Car bentCar = new Car('X', false, 7, bent, 3, 0);
+        TestSupport.check("bent mask: extents match a cell scan", matchesScan(bentCar, width, height));
+
+        Car empty = new Car('Y', true, 0, new long[2], 0, 0);
+        TestSupport.check("empty car: extents match a cell scan", matchesScan(empty, width, height));
+        TestSupport.checkEquals("empty car: minColumn", Integer.MAX_VALUE, empty.minColumn(width));
+        TestSupport.checkEquals("empty car: maxColumn", -1, empty.maxColumn(width));
+        TestSupport.checkEquals("empty car: minRow", Integer.MAX_VALUE, empty.minRow(width));
+        TestSupport.checkEquals("empty car: maxRow", -1, empty.maxRow(width));
+    }
+
+    /**
+     * Compares every extent query of a car, including the {@link Distance} helpers,
+     * with the extents found by testing each cell of the grid.
+     *
+     * @param car Car to check
+     * @param width Width of the puzzle grid
+     * @param height Height of the puzzle grid
+     * @return True if all queries agree with the scan
+     */
+    private static boolean matchesScan(Car car, int width, int height) {
+        int minColumn = Integer.MAX_VALUE, maxColumn = -1;
+        int minRow = Integer.MAX_VALUE, maxRow = -1;
+        for (int cell = 0; cell < width * height; cell++) {
+            if (cell / 64 < car.bitmask.length && (car.bitmask[cell / 64] & (1L << (cell % 64))) != 0) {
+                minColumn = Math.min(minColumn, cell % width);
+                maxColumn = Math.max(maxColumn, cell % width);
+                minRow = Math.min(minRow, cell / width);
+                maxRow = Math.max(maxRow, cell / width);
+            }
+        }
+        return car.minColumn(width) == minColumn && car.maxColumn(width) == maxColumn
+            && car.minRow(width) == minRow && car.maxRow(width) == maxRow
+            && Distance.findLeftmostColumn(car, width) == minColumn
+            && Distance.findRightmostColumn(car, width) == maxColumn
+            && Distance.findTopmostRow(car, width) == minRow
+            && Distance.findBottommostRow(car, width) == maxRow;
+    }
+}
@@ -0,0 +1,46 @@
+package test;
+
+import heuristic.BlockingCars;
+import pathfinding.AStar;
+import pathfinding.GreedyBFS;
+import pathfinding.UCS;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks that searches keeping their tree in a compact path store return
+ * the same solutions as searches that keep parent references.
+ */
+public class CompactPathTest {
+    static void run() throws Exception {
+        for (String name : TestSupport.allPuzzles()) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            int optimal = TestSupport.optimalCost(name);
+
+            State ucs = TestSupport.quietly(() -> {
+                UCS solver = new UCS(p.width, p.height, p.kRow, p.kCol, p.exitDirection);
+                solver.setCompactPath(true);
+                return solver.find(p.initialState);
+            });
+            TestSupport.expectSolution(name + " UCS with compact path", p, ucs, optimal);
+
+            State aStar = TestSupport.quietly(() -> {
+                AStar solver = new AStar(p.width, p.height, p.kRow, p.kCol, p.exitDirection, new BlockingCars());
+                solver.setCompactPath(true);
+                return solver.find(p.initialState);
+            });
+            TestSupport.expectSolution(name + " A* with compact path", p, aStar, optimal);
+
+            // Urutan ekspansi tidak berubah, jadi jalurnya harus sama persis
+            State greedy = TestSupport.quietly(() -> {
+                GreedyBFS solver = new GreedyBFS(p.width, p.height, p.kRow, p.kCol, p.exitDirection, new BlockingCars());
+                solver.setCompactPath(true);
+                return solver.find(p.initialState);
+            });
+            State greedyWithParents = TestSupport.quietly(() -> new GreedyBFS(p.width, p.height, p.kRow, p.kCol, p.exitDirection, new BlockingCars()).find(p.initialState));
+            TestSupport.check(name + " greedy with compact path: same path as with parent references",
+                greedy == null ? greedyWithParents == null
+                    : greedyWithParents != null && greedy.getSolutionPath(p.width, p.height).equals(greedyWithParents.getSolutionPath(p.width, p.height)));
+        }
+    }
+}
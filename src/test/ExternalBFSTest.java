@@ -0,0 +1,37 @@
+package test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import pathfinding.ExternalBFS;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks that the external-memory BFS finds optimal solutions, also when the layers
+ * are split into many small sorted runs, and that it removes its layer files.
+ */
+public class ExternalBFSTest {
+    private static final int[] CHUNK_SIZES = {64, 1 << 16}; // Chunk kecil memaksa banyak run untuk digabung
+
+    static void run() throws Exception {
+        Path workDirectory = Files.createTempDirectory("rushhour-test");
+        try {
+            for (String name : TestSupport.allPuzzles()) {
+                Parser.ParsedResult p = TestSupport.load(name);
+                for (int chunkSize : CHUNK_SIZES) {
+                    ExternalBFS solver = new ExternalBFS(p.width, p.height, p.kRow, p.kCol, p.exitDirection);
+                    solver.setChunkSize(chunkSize);
+                    solver.setWorkDirectory(workDirectory);
+                    State goal = TestSupport.quietly(() -> solver.find(p.initialState));
+                    TestSupport.expectSolution(name + " external BFS with chunks of " + chunkSize, p, goal, TestSupport.optimalCost(name));
+                }
+            }
+            try (Stream<Path> left = Files.list(workDirectory)) {
+                TestSupport.check("external BFS removes its layer files", left.findAny().isEmpty());
+            }
+        } finally {
+            Files.deleteIfExists(workDirectory);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package test;
+
+import java.util.ArrayList;
+import java.util.List;
+import pathfinding.UCS;
+import util.Board;
+import util.Car;
+import util.PackedState;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks the exit-lane goal tests against a cell-by-cell walk of P's lane,
+ * and uniform cost search with the goal test on generation against the known optimal costs.
+ */
+public class GoalTestTest {
+    private static final int STATES_PER_PUZZLE = 1000;
+    private static final int STATES_NEAR_GOAL = 200;
+
+    static void run() throws Exception {
+        for (String name : TestSupport.allPuzzles()) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            Board board = new Board(p.initialState, p.width, p.height, p.kRow, p.kCol, p.exitDirection);
+            Board.MoveCursor cursor = board.newCursor();
+
+            // Sampel dari awal dan dari dekat goal, supaya kedua hasil ikut teruji
+            List<State> states = new ArrayList<>(TestSupport.sampleStates(p, STATES_PER_PUZZLE));
+            for (Parser.ParsedResult near : TestSupport.nearGoalPuzzles(p, 2, 1)) {
+                states.addAll(TestSupport.sampleStates(near, STATES_NEAR_GOAL));
+            }
+
+            boolean stateAgrees = true, packedAgrees = true, occupancyAgrees = true, cursorAgrees = true;
+            int goals = 0;
+            for (State state : states) {
+                boolean expected = walkLane(state, p);
+                if (expected) goals++;
+                stateAgrees &= state.isReached(p.width, p.height, p.kRow, p.kCol, p.exitDirection) == expected;
+
+                PackedState packed = board.pack(state);
+                packedAgrees &= board.isReached(packed) == expected;
+                if (board.primaryIndex >= 0) {
+                    occupancyAgrees &= board.isReached(state.occupied, packed.offset(board.primaryIndex)) == expected;
+                }
+
+                cursor.reset(packed);
+                while (cursor.next()) {
+                    cursorAgrees &= cursor.leadsToGoal() == board.isReached(cursor.materialize());
+                }
+            }
+            TestSupport.check(name + ": State.isReached matches a lane walk", stateAgrees);
+            TestSupport.check(name + ": Board.isReached on packed states matches a lane walk", packedAgrees);
+            TestSupport.check(name + ": Board.isReached on occupancy matches a lane walk", occupancyAgrees);
+            TestSupport.check(name + ": leadsToGoal matches the goal test of the successor", cursorAgrees);
+            if (TestSupport.optimalCost(name) != TestSupport.UNSOLVABLE) {
+                TestSupport.check(name + ": some sampled states are goals", goals > 0);
+            } else {
+                TestSupport.checkEquals(name + ": sampled goal states", 0, goals);
+            }
+        }
+
+        for (String name : TestSupport.allPuzzles()) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            for (boolean useBucketQueue : new boolean[] {false, true}) {
+                UCS solver = new UCS(p.width, p.height, p.kRow, p.kCol, p.exitDirection, useBucketQueue);
+                solver.setGoalTestOnGeneration(true);
+                State goal = TestSupport.quietly(() -> solver.find(p.initialState));
+                TestSupport.expectSolution(name + ": UCS goal on generation (buckets " + useBucketQueue + ")", p, goal, TestSupport.optimalCost(name));
+            }
+        }
+    }
+
+    /**
+     * Reference goal test: finds P's extent cell by cell in its lane and walks
+     * every cell between P and the exit edge.
+     *
+     * @param state State to test
+     * @param p Puzzle the state belongs to
+     * @return True if P can leave through the exit
+     */
+    private static boolean walkLane(State state, Parser.ParsedResult p) {
+        Car primary = state.cars.get('P');
+        if (primary == null) return false;
+        boolean horizontalExit = "left".equals(p.exitDirection) || "right".equals(p.exitDirection);
+        if (primary.isHorizontal != horizontalExit) return false;
+
+        int laneLength = primary.isHorizontal ? p.width : p.height;
+        int first = -1, last = -1;
+        for (int i = 0; i < laneLength; i++) {
+            if (isSet(primary.bitmask, laneCell(primary, p.width, i))) {
+                if (first < 0) first = i;
+                last = i;
+            }
+        }
+        boolean towardsEnd = "right".equals(p.exitDirection) || "bottom".equals(p.exitDirection);
+        int from = towardsEnd ? last + 1 : 0;
+        int to = towardsEnd ? laneLength : first;
+        for (int i = from; i < to; i++) {
+            if (isSet(state.occupied, laneCell(primary, p.width, i))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the cell index of a position in the lane of a car.
+     *
+     * @param car Car whose lane is walked
+     * @param width Width of the puzzle grid
+     * @param i Column for a horizontal car, row for a vertical car
+     * @return Cell index
+     */
+    private static int laneCell(Car car, int width, int i) {
+        return car.isHorizontal ? car.row * width + i : i * width + car.col;
+    }
+
+    /**
+     * Tests a bit of a chunked mask.
+     *
+     * @param mask Mask to test
+     * @param cell Cell index
+     * @return True if the bit is set
+     */
+    private static boolean isSet(long[] mask, int cell) {
+        return cell / 64 < mask.length && (mask[cell / 64] & (1L << (cell % 64))) != 0;
+    }
+}
@@ -0,0 +1,65 @@
+package test;
+
+import heuristic.BlockingCars;
+import heuristic.Heuristic;
+import heuristic.PatternDatabase;
+import pathfinding.AStar;
+import pathfinding.IDAStar;
+import util.Board;
+import util.PackedState;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks the explicit-stack IDA*: the in-place do/undo of moves, and optimal
+ * costs compared with the known costs and with A*.
+ */
+public class IDAStarTest {
+    static void run() throws Exception {
+        checkApplyAndUndo();
+
+        for (String name : TestSupport.SMALL) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            for (Heuristic heuristic : new Heuristic[] {new BlockingCars(), new PatternDatabase()}) {
+                State goal = TestSupport.quietly(() -> new IDAStar(p.width, p.height, p.kRow, p.kCol, p.exitDirection, heuristic).find(p.initialState));
+                TestSupport.expectSolution(name + " IDA* " + heuristic.getName(), p, goal, TestSupport.optimalCost(name));
+            }
+        }
+
+        // Puzzle sedang terlalu dalam untuk IDA*, jadi mulai dari state dekat goal
+        for (String name : TestSupport.MEDIUM) {
+            for (Parser.ParsedResult p : TestSupport.nearGoalPuzzles(TestSupport.load(name), 6, 1)) {
+                State expected = TestSupport.quietly(() -> new AStar(p.width, p.height, p.kRow, p.kCol, p.exitDirection, new BlockingCars()).find(p.initialState));
+                State goal = TestSupport.quietly(() -> new IDAStar(p.width, p.height, p.kRow, p.kCol, p.exitDirection, new BlockingCars()).find(p.initialState));
+                TestSupport.expectSolution(name + " near goal, IDA* against A*", p, goal, expected.cost);
+            }
+        }
+    }
+
+    /**
+     * Moves every car of sampled states on a working state and back, checking that the
+     * offsets and fingerprint follow the state built from scratch.
+     *
+     * @throws Exception If a puzzle cannot be loaded
+     */
+    private static void checkApplyAndUndo() throws Exception {
+        Parser.ParsedResult p = TestSupport.load("exp");
+        Board board = new Board(p.initialState, p.width, p.height, p.kRow, p.kCol, p.exitDirection);
+        Board.MoveCursor cursor = board.newCursor();
+        boolean inStep = true;
+        for (State state : TestSupport.sampleStates(p, 2000)) {
+            PackedState packed = board.pack(state);
+            PackedState work = board.pack(state);
+            cursor.reset(packed);
+            while (cursor.next()) {
+                PackedState child = cursor.materialize();
+                int previousOffset = work.offset(cursor.car);
+                board.apply(work, cursor.car, cursor.offset);
+                inStep &= work.equals(child);
+                board.apply(work, cursor.car, previousOffset);
+                inStep &= work.equals(packed);
+            }
+        }
+        TestSupport.check("apply and undo keep the working state in step", inStep);
+    }
+}
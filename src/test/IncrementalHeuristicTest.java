@@ -0,0 +1,48 @@
+package test;
+
+import heuristic.BlockingCarDistance;
+import heuristic.BlockingCars;
+import heuristic.CombinedHeuristic;
+import heuristic.Distance;
+import heuristic.Heuristic;
+import util.Board;
+import util.PackedState;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks that heuristic values updated from the parent equal values computed from scratch,
+ * and that the packed evaluation agrees with the evaluation on full states.
+ */
+public class IncrementalHeuristicTest {
+    private static final String[] PUZZLES = {"atas", "bawah", "testwin", "exp", "gm", "testtop", "testbottom", "misteri4", "tegaklurus", "testsusah"};
+    private static final int STATES_PER_PUZZLE = 3000;
+
+    static void run() throws Exception {
+        Heuristic[] heuristics = {new BlockingCars(), new BlockingCarDistance(), new Distance(), new CombinedHeuristic()};
+        for (String name : PUZZLES) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            Board board = new Board(p.initialState, p.width, p.height, p.kRow, p.kCol, p.exitDirection);
+            Board.MoveCursor cursor = board.newCursor();
+
+            for (Heuristic heuristic : heuristics) {
+                boolean sameAsState = true;
+                boolean sameAsFull = true;
+                for (State state : TestSupport.sampleStates(p, STATES_PER_PUZZLE)) {
+                    PackedState parent = board.pack(state);
+                    int parentH = heuristic.calculate(board, parent);
+                    sameAsState &= parentH == heuristic.calculate(state, p.width, p.height, p.exitDirection);
+
+                    // Setiap langkah, termasuk langkah P, harus memberi nilai yang sama dengan hitung ulang
+                    cursor.reset(parent);
+                    while (cursor.next()) {
+                        PackedState child = cursor.materialize();
+                        sameAsFull &= heuristic.update(board, parent, parentH, child, cursor.car) == heuristic.calculate(board, child);
+                    }
+                }
+                TestSupport.check(name + " " + heuristic.getName() + ": packed value equals State value", sameAsState);
+                TestSupport.check(name + " " + heuristic.getName() + ": updated value equals full value", sameAsFull);
+            }
+        }
+    }
+}
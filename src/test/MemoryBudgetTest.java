@@ -0,0 +1,36 @@
+package test;
+
+import heuristic.BlockingCars;
+import pathfinding.AStar;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks that A* still finds optimal solutions when its memory budget forces
+ * the fallback to IDA*, and that a generous budget keeps it in A*.
+ */
+public class MemoryBudgetTest {
+    private static final long TINY_BUDGET = 1; // Langsung pindah ke IDA* setelah state pertama
+    private static final long LARGE_BUDGET = 256L * 1024 * 1024;
+
+    static void run() throws Exception {
+        // IDA* hanya cepat pada puzzle kecil
+        for (String name : TestSupport.SMALL) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            AStar solver = new AStar(p.width, p.height, p.kRow, p.kCol, p.exitDirection, new BlockingCars());
+            solver.setMemoryBudget(TINY_BUDGET);
+            State goal = TestSupport.quietly(() -> solver.find(p.initialState));
+            TestSupport.expectSolution(name + " A* over budget", p, goal, TestSupport.optimalCost(name));
+            TestSupport.check(name + " A* over budget finishes with IDA*", "IDA*".equals(solver.getFinishedMode()));
+        }
+
+        for (String name : TestSupport.MEDIUM) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            AStar solver = new AStar(p.width, p.height, p.kRow, p.kCol, p.exitDirection, new BlockingCars());
+            solver.setMemoryBudget(LARGE_BUDGET);
+            State goal = TestSupport.quietly(() -> solver.find(p.initialState));
+            TestSupport.expectSolution(name + " A* within budget", p, goal, TestSupport.optimalCost(name));
+            TestSupport.check(name + " A* within budget finishes with A*", "A*".equals(solver.getFinishedMode()));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import util.Board;
+import util.PackedState;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks that the lazy move cursor visits exactly the successors of the eager generator.
+ */
+public class MoveCursorTest {
+    private static final String[] PUZZLES = {"atas", "exp", "misteri4", "testsusah"};
+    private static final int STATES_PER_PUZZLE = 2000;
+
+    static void run() throws Exception {
+        for (String name : PUZZLES) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            Board board = new Board(p.initialState, p.width, p.height, p.kRow, p.kCol, p.exitDirection);
+            Board.MoveCursor cursor = board.newCursor();
+            boolean sameSuccessors = true;
+            boolean consistentMoves = true;
+
+            for (State state : TestSupport.sampleStates(p, STATES_PER_PUZZLE)) {
+                PackedState packed = board.pack(state);
+                List<PackedState> eager = board.generateNextStates(packed);
+
+                Set<PackedState> lazy = new HashSet<>();
+                int moveCount = 0;
+                cursor.reset(packed);
+                while (cursor.next()) {
+                    moveCount++;
+                    PackedState child = cursor.materialize();
+                    lazy.add(child);
+                    // Langkah yang dilaporkan cursor harus sama dengan state yang dibangun
+                    consistentMoves &= child.fingerprint == cursor.fingerprint
+                        && child.offset(cursor.car) == cursor.offset
+                        && child.parent == packed
+                        && child.cost == packed.cost + 1
+                        && cursor.leadsTo(child)
+                        && !cursor.leadsTo(packed);
+                }
+                sameSuccessors &= moveCount == eager.size() && lazy.equals(new HashSet<>(eager));
+            }
+            TestSupport.check(name + ": cursor visits the same successors", sameSuccessors);
+            TestSupport.check(name + ": cursor moves match the built states", consistentMoves);
+        }
+    }
+}
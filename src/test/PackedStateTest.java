@@ -0,0 +1,39 @@
+package test;
+
+import java.util.List;
+import heuristic.Distance;
+import heuristic.Heuristic;
+import heuristic.MobilityScore;
+import pathfinding.UCS;
+import util.Board;
+import util.PackedState;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks that packed states describe the same positions as full states and get
+ * the same heuristic values, and that the packed UCS search still finds optimal solutions.
+ */
+public class PackedStateTest {
+    static void run() throws Exception {
+        for (String name : TestSupport.allPuzzles()) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            Board board = new Board(p.initialState, p.width, p.height, p.kRow, p.kCol, p.exitDirection);
+
+            // Pack lalu unpack harus menghasilkan posisi yang sama, juga untuk setiap tetangga
+            List<State> states = p.initialState.generateNextStates(p.width, p.height);
+            states.add(p.initialState);
+            for (State state : states) {
+                PackedState packed = board.pack(state);
+                TestSupport.check(name + ": pack/unpack keeps positions", TestSupport.samePositions(board.unpack(packed), state));
+                for (Heuristic heuristic : new Heuristic[] {new Distance(), new MobilityScore()}) {
+                    TestSupport.checkEquals(name + ": packed " + heuristic.getName(),
+                        heuristic.calculate(state, p.width, p.height, p.exitDirection), heuristic.calculate(board, packed));
+                }
+            }
+
+            State goal = TestSupport.quietly(() -> new UCS(p.width, p.height, p.kRow, p.kCol, p.exitDirection).find(p.initialState));
+            TestSupport.expectSolution(name + " UCS", p, goal, TestSupport.optimalCost(name));
+        }
+    }
+}
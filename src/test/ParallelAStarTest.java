@@ -0,0 +1,24 @@
+package test;
+
+import heuristic.BlockingCars;
+import pathfinding.ParallelAStar;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks that hash-distributed parallel A* returns optimal solutions for several thread counts.
+ */
+public class ParallelAStarTest {
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+
+    static void run() throws Exception {
+        for (String name : TestSupport.allPuzzles()) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            int optimal = TestSupport.optimalCost(name);
+            for (int threads : THREAD_COUNTS) {
+                State goal = TestSupport.quietly(() -> new ParallelAStar(p.width, p.height, p.kRow, p.kCol, p.exitDirection, new BlockingCars(), threads).find(p.initialState));
+                TestSupport.expectSolution(name + " parallel A* on " + threads + " threads", p, goal, optimal);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package test;
+
+import java.util.List;
+import pathfinding.ParallelBFS;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks that the level-synchronous parallel BFS returns optimal solutions,
+ * and the same path for every thread count.
+ */
+public class ParallelBFSTest {
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 8};
+
+    static void run() throws Exception {
+        for (String name : TestSupport.allPuzzles()) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            int optimal = TestSupport.optimalCost(name);
+            List<State> firstPath = null;
+            boolean samePath = true;
+            for (int threads : THREAD_COUNTS) {
+                State goal = TestSupport.quietly(() -> new ParallelBFS(p.width, p.height, p.kRow, p.kCol, p.exitDirection, threads).find(p.initialState));
+                TestSupport.expectSolution(name + " parallel BFS on " + threads + " threads", p, goal, optimal);
+                if (goal == null) continue;
+
+                List<State> path = goal.getSolutionPath(p.width, p.height);
+                if (firstPath == null) {
+                    firstPath = path;
+                } else {
+                    samePath &= path.equals(firstPath);
+                }
+            }
+            TestSupport.check(name + " parallel BFS: same path for every thread count", samePath);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package test;
+
+import heuristic.BlockingCars;
+import heuristic.Heuristic;
+import heuristic.PatternDatabase;
+import pathfinding.ParallelIDAStar;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks that parallel IDA* returns optimal solutions for several thread counts.
+ */
+public class ParallelIDAStarTest {
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+
+    static void run() throws Exception {
+        // IDA* hanya cepat pada puzzle kecil
+        for (String name : TestSupport.SMALL) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            int optimal = TestSupport.optimalCost(name);
+            for (Heuristic heuristic : new Heuristic[] {new BlockingCars(), new PatternDatabase()}) {
+                for (int threads : THREAD_COUNTS) {
+                    State goal = TestSupport.quietly(() -> new ParallelIDAStar(p.width, p.height, p.kRow, p.kCol, p.exitDirection, heuristic, threads).find(p.initialState));
+                    TestSupport.expectSolution(name + " parallel IDA* " + heuristic.getName() + " on " + threads + " threads", p, goal, optimal);
+                }
+            }
+        }
+    }
+}
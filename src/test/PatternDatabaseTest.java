@@ -0,0 +1,57 @@
+package test;
+
+import heuristic.PatternDatabase;
+import pathfinding.AStar;
+import pathfinding.RetrogradeSolver;
+import util.Board;
+import util.PackedState;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks that the pattern database never overestimates the exact distances of the
+ * retrograde table and drops by at most 1 per move, so A* with it stays optimal.
+ */
+public class PatternDatabaseTest {
+    private static final int STATES_PER_PUZZLE = 3000;
+
+    static void run() throws Exception {
+        PatternDatabase[] databases = {new PatternDatabase(), new PatternDatabase(4, false), new PatternDatabase(2, true)};
+        for (String name : TestSupport.allPuzzles()) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            int optimal = TestSupport.optimalCost(name);
+            if (optimal == TestSupport.UNSOLVABLE) continue;
+
+            RetrogradeSolver exact = new RetrogradeSolver(p.width, p.height, p.kRow, p.kCol, p.exitDirection);
+            TestSupport.quietly(() -> {
+                exact.build(p.initialState);
+                return null;
+            });
+            Board board = new Board(p.initialState, p.width, p.height, p.kRow, p.kCol, p.exitDirection);
+
+            for (PatternDatabase database : databases) {
+                boolean admissible = true;
+                boolean sameForState = true;
+                boolean consistent = true;
+                Board.MoveCursor cursor = board.newCursor();
+                for (State state : TestSupport.sampleStates(p, STATES_PER_PUZZLE)) {
+                    PackedState packed = board.pack(state);
+                    int distance = exact.distance(packed);
+                    int h = database.calculate(board, packed);
+                    admissible &= distance == RetrogradeSolver.UNSOLVABLE || h <= distance;
+                    sameForState &= h == database.calculate(state, p.width, p.height, p.exitDirection);
+                    cursor.reset(packed);
+                    while (cursor.next()) {
+                        consistent &= h <= 1 + database.calculate(board, cursor.materialize());
+                    }
+                }
+                TestSupport.check(name + " " + database.getName() + ": never above the exact distance", admissible);
+                TestSupport.check(name + " " + database.getName() + ": State and packed values agree", sameForState);
+                TestSupport.check(name + " " + database.getName() + ": drops by at most 1 per move", consistent);
+
+                State goal = TestSupport.quietly(() -> new AStar(p.width, p.height, p.kRow, p.kCol, p.exitDirection, database).find(p.initialState));
+                TestSupport.expectSolution(name + " A* " + database.getName(), p, goal, optimal);
+            }
+        }
+    }
+}
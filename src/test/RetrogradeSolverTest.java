@@ -0,0 +1,42 @@
+package test;
+
+import java.util.List;
+import heuristic.BlockingCars;
+import pathfinding.AStar;
+import pathfinding.RetrogradeSolver;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks the distances of the retrograde table against A* searches started from the same states.
+ */
+public class RetrogradeSolverTest {
+    private static final int SAMPLED_STATES = 400;
+    private static final int SAMPLE_STRIDE = 20; // Hanya setiap state ke-20 dibandingkan dengan A*
+
+    static void run() throws Exception {
+        for (String name : TestSupport.allPuzzles()) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            int optimal = TestSupport.optimalCost(name);
+
+            RetrogradeSolver solver = new RetrogradeSolver(p.width, p.height, p.kRow, p.kCol, p.exitDirection);
+            State goal = TestSupport.quietly(() -> solver.find(p.initialState));
+            TestSupport.expectSolution(name + " retrograde", p, goal, optimal);
+            if (goal == null) continue;
+
+            TestSupport.checkEquals(name + " retrograde: distance of the initial state", optimal, solver.distance(p.initialState));
+            TestSupport.check(name + " retrograde: hardest state is at least as far", solver.getMaxDistance() >= optimal);
+
+            // Jarak di tabel harus sama dengan hasil A* dari state yang sama
+            List<State> states = TestSupport.sampleStates(p, SAMPLED_STATES);
+            boolean sameDistances = true;
+            for (int i = 0; i < states.size(); i += SAMPLE_STRIDE) {
+                State start = new State(states.get(i).cars, null, null, 0);
+                State aStar = TestSupport.quietly(() -> new AStar(p.width, p.height, p.kRow, p.kCol, p.exitDirection, new BlockingCars()).find(start));
+                int expected = aStar == null ? RetrogradeSolver.UNSOLVABLE : aStar.cost;
+                sameDistances &= solver.distance(start) == expected;
+            }
+            TestSupport.check(name + " retrograde: table distances match A*", sameDistances);
+        }
+    }
+}
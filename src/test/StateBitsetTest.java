@@ -0,0 +1,96 @@
+package test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import heuristic.BlockingCars;
+import heuristic.CombinedHeuristic;
+import heuristic.Distance;
+import heuristic.PatternDatabase;
+import pathfinding.AStar;
+import pathfinding.UCS;
+import util.Board;
+import util.PackedState;
+import util.Parser;
+import util.State;
+import util.StateBitset;
+import util.StateRanker;
+
+/**
+ * Checks that state ranks are a perfect hash of the reachable states and that
+ * UCS and A* find the same costs with a bitset visited set as with the hash table.
+ */
+public class StateBitsetTest {
+    private static final int STATE_LIMIT = 50000;
+
+    static void run() throws Exception {
+        TestSupport.check("bitset A* only with a consistent heuristic",
+                new BlockingCars().isConsistent() && new PatternDatabase().isConsistent() && !new Distance().isConsistent() && !new CombinedHeuristic().isConsistent());
+        for (String name : TestSupport.allPuzzles()) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            int optimal = TestSupport.optimalCost(name);
+            checkRanks(name, p);
+
+            State ucs = TestSupport.quietly(() -> {
+                UCS solver = new UCS(p.width, p.height, p.kRow, p.kCol, p.exitDirection);
+                solver.setBitsetVisited(true);
+                return solver.find(p.initialState);
+            });
+            TestSupport.expectSolution(name + " UCS with bitset", p, ucs, optimal);
+
+            State aStar = TestSupport.quietly(() -> {
+                AStar solver = new AStar(p.width, p.height, p.kRow, p.kCol, p.exitDirection, new BlockingCars());
+                solver.setBitsetVisited(true);
+                return solver.find(p.initialState);
+            });
+            TestSupport.expectSolution(name + " A* with bitset", p, aStar, optimal);
+        }
+    }
+
+    /**
+     * Walks the reachable states breadth-first and checks that their ranks are distinct,
+     * in range and decode back to the same offsets, and that the bitset agrees with a hash set.
+     *
+     * @param name Puzzle name for messages
+     * @param p Puzzle to walk
+     */
+    private static void checkRanks(String name, Parser.ParsedResult p) {
+        Board board = new Board(p.initialState, p.width, p.height, p.kRow, p.kCol, p.exitDirection);
+        PackedState root = board.pack(p.initialState);
+        if (board.hasOverlap(root)) return; // Tidak ada peringkat untuk state yang tumpang tindih
+
+        StateRanker ranker = new StateRanker(board, root);
+        StateBitset bitset = new StateBitset(ranker);
+        Set<PackedState> seen = new HashSet<>();
+        Set<Long> ranks = new HashSet<>();
+        ArrayDeque<PackedState> queue = new ArrayDeque<>();
+        Board.MoveCursor cursor = board.newCursor();
+        byte[] decoded = new byte[board.carCount];
+        boolean ranksValid = true;
+        boolean bitsetAgrees = true;
+
+        seen.add(root);
+        bitset.add(root);
+        queue.add(root);
+        while (!queue.isEmpty() && seen.size() < STATE_LIMIT) {
+            PackedState state = queue.poll();
+            long rank = ranker.rank(state);
+            ranker.unrank(rank, decoded);
+            ranksValid &= rank >= 0 && rank < ranker.size() && ranks.add(rank) && Arrays.equals(decoded, state.offsets);
+
+            cursor.reset(state);
+            while (cursor.next()) {
+                PackedState child = cursor.materialize();
+                ranksValid &= ranker.rank(state, cursor.car, cursor.offset) == ranker.rank(child);
+                bitsetAgrees &= bitset.contains(cursor) == seen.contains(child);
+                if (seen.add(child)) {
+                    bitsetAgrees &= bitset.add(child);
+                    queue.add(child);
+                }
+            }
+        }
+        TestSupport.check(name + ": ranks are distinct, in range and decode to the state", ranksValid);
+        TestSupport.check(name + ": bitset agrees with a hash set", bitsetAgrees && bitset.size() == seen.size());
+    }
+}
@@ -0,0 +1,69 @@
+package test;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import util.Board;
+import util.PackedState;
+import util.Parser;
+import util.StateTable;
+
+/**
+ * Checks the open-addressing state table against a plain {@link HashMap}.
+ */
+public class StateTableTest {
+    private static final int STATE_LIMIT = 20000; // Cukup untuk beberapa kali memperbesar tabel
+
+    static void run() throws Exception {
+        Parser.ParsedResult p = TestSupport.load("exp");
+        Board board = new Board(p.initialState, p.width, p.height, p.kRow, p.kCol, p.exitDirection);
+        StateTable table = new StateTable(board);
+        Map<PackedState, Integer> expected = new HashMap<>();
+
+        // Simpan state dalam urutan BFS dengan kedalamannya sebagai cost
+        ArrayDeque<PackedState> queue = new ArrayDeque<>();
+        PackedState root = board.pack(p.initialState);
+        table.put(root, 0);
+        expected.put(root, 0);
+        queue.add(root);
+        Board.MoveCursor cursor = board.newCursor();
+        boolean lookupsMatch = true;
+        while (!queue.isEmpty() && expected.size() < STATE_LIMIT) {
+            PackedState state = queue.poll();
+            cursor.reset(state);
+            while (cursor.next()) {
+                int stored = table.get(cursor);
+                PackedState successor = cursor.materialize();
+                Integer known = expected.get(successor);
+                lookupsMatch &= stored == (known == null ? StateTable.NOT_FOUND : known);
+                if (known == null) {
+                    table.put(successor, successor.cost);
+                    expected.put(successor, successor.cost);
+                    queue.add(successor);
+                }
+            }
+        }
+        TestSupport.check("cursor lookups match the map", lookupsMatch);
+
+        TestSupport.checkEquals("table size", expected.size(), table.size());
+        boolean allFound = true;
+        for (Map.Entry<PackedState, Integer> entry : expected.entrySet()) {
+            allFound &= table.get(entry.getKey()) == entry.getValue();
+        }
+        TestSupport.check("every stored cost is found after growing", allFound);
+
+        // Menyimpan ulang mengganti cost tanpa menambah entri
+        table.put(root, 7);
+        TestSupport.checkEquals("put replaces the cost", 7, table.get(root));
+        TestSupport.checkEquals("put replaces without growing", expected.size(), table.size());
+
+        // Dua state dengan fingerprint sama tetap dibedakan lewat offset
+        byte[] offsets = root.offsets.clone();
+        offsets[board.primaryIndex]++;
+        PackedState collision = new PackedState(offsets, null, -1, 0, root.fingerprint);
+        TestSupport.check("colliding state is not found", !table.contains(collision));
+        table.put(collision, 3);
+        TestSupport.checkEquals("colliding state keeps its own cost", 3, table.get(collision));
+        TestSupport.checkEquals("original state keeps its cost", 7, table.get(root));
+    }
+}
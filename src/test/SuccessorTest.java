@@ -0,0 +1,116 @@
+package test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import util.Board;
+import util.Car;
+import util.PackedState;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks the successors built from the precomputed slide tables against
+ * a plain character-grid move generator.
+ */
+public class SuccessorTest {
+    private static final String[] PUZZLES = {"atas", "testwin", "exp", "gm", "misteri4", "testsusah"};
+    private static final int STATES_PER_PUZZLE = 2000;
+
+    static void run() throws Exception {
+        for (String name : PUZZLES) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            Board board = new Board(p.initialState, p.width, p.height, p.kRow, p.kCol, p.exitDirection);
+            boolean stateMatches = true;
+            boolean boardMatches = true;
+
+            for (State state : TestSupport.sampleStates(p, STATES_PER_PUZZLE)) {
+                Set<String> expected = referenceSuccessors(toGrid(state, p.width, p.height), p.width, p.height);
+
+                Set<String> fromState = new HashSet<>();
+                for (State next : state.generateNextStates(p.width, p.height)) {
+                    fromState.add(toGrid(next, p.width, p.height));
+                }
+                stateMatches &= fromState.equals(expected);
+
+                Set<String> fromBoard = new HashSet<>();
+                for (PackedState next : board.generateNextStates(board.pack(state))) {
+                    fromBoard.add(toGrid(board.unpack(next), p.width, p.height));
+                }
+                boardMatches &= fromBoard.equals(expected);
+            }
+            TestSupport.check(name + ": State successors match the grid moves", stateMatches);
+            TestSupport.check(name + ": Board successors match the grid moves", boardMatches);
+        }
+    }
+
+    /**
+     * Draws a state as a row-major string of car ids, '.' for empty cells.
+     *
+     * @param state State to draw
+     * @param width Width of the puzzle grid
+     * @param height Height of the puzzle grid
+     * @return Grid string of length width * height
+     */
+    private static String toGrid(State state, int width, int height) {
+        char[] grid = new char[width * height];
+        Arrays.fill(grid, '.');
+        for (Car car : state.cars.values()) {
+            for (int chunk = 0; chunk < car.bitmask.length; chunk++) {
+                for (long bits = car.bitmask[chunk]; bits != 0; bits &= bits - 1) {
+                    grid[chunk * 64 + Long.numberOfTrailingZeros(bits)] = car.id;
+                }
+            }
+        }
+        return new String(grid);
+    }
+
+    /**
+     * Generates every slide of every car on a grid, one or more cells along its lane.
+     *
+     * @param grid Grid string from {@link #toGrid}
+     * @param width Width of the puzzle grid
+     * @param height Height of the puzzle grid
+     * @return Grid strings of all successors
+     */
+    private static Set<String> referenceSuccessors(String grid, int width, int height) {
+        Set<String> successors = new HashSet<>();
+        Set<Character> done = new HashSet<>();
+        for (int start = 0; start < grid.length(); start++) {
+            char id = grid.charAt(start);
+            if (id == '.' || !done.add(id)) continue;
+
+            List<Integer> cells = new ArrayList<>();
+            for (int cell = start; cell < grid.length(); cell++) {
+                if (grid.charAt(cell) == id) cells.add(cell);
+            }
+            boolean horizontal = cells.size() > 1 && cells.get(1) == cells.get(0) + 1;
+            int step = horizontal ? 1 : width;
+
+            for (int direction : new int[] {-1, 1}) {
+                for (int distance = 1; ; distance++) {
+                    int delta = direction * distance * step;
+                    char[] next = grid.toCharArray();
+                    for (int cell : cells) next[cell] = '.';
+                    boolean fits = true;
+                    for (int cell : cells) {
+                        int target = cell + delta;
+                        boolean inside = horizontal
+                            ? target / width == cell / width && target >= 0
+                            : target >= 0 && target < width * height;
+                        if (!inside || next[target] != '.') {
+                            fits = false;
+                            break;
+                        }
+                        next[target] = id;
+                    }
+                    if (!fits) break;
+                    successors.add(new String(next));
+                }
+            }
+        }
+        return successors;
+    }
+}
@@ -0,0 +1,277 @@
+package test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import heuristic.BlockingCars;
+import pathfinding.AStar;
+import util.Car;
+import util.Parser;
+import util.State;
+
+/**
+ * Shared helpers for the solver checks.
+ * Loads the puzzles under test/, knows their optimal step counts and counts
+ * failed expectations. Run the checks from the project root.
+ */
+public class TestSupport {
+    public static final int UNSOLVABLE = -1;
+
+    // Puzzle kecil, cukup cepat untuk IDA* dan pencarian tanpa heuristik
+    public static final String[] SMALL = {"atas", "bawah", "test", "testmirror", "im", "testwin"};
+    public static final String[] MEDIUM = {"exp", "gm", "gaknormal", "testtop", "testbottom", "misteri4"};
+    public static final String[] NO_SOLUTION = {"edge6", "edge7", "tegaklurus"}; // tegaklurus: P tegak lurus arah keluar
+
+    private static final Map<String, Integer> OPTIMAL_COST = Map.ofEntries(
+        Map.entry("atas", 4),
+        Map.entry("bawah", 4),
+        Map.entry("test", 4),
+        Map.entry("testmirror", 4),
+        Map.entry("im", 3),
+        Map.entry("testwin", 3),
+        Map.entry("exp", 29),
+        Map.entry("gm", 37),
+        Map.entry("gaknormal", 37),
+        Map.entry("testtop", 32),
+        Map.entry("testbottom", 32),
+        Map.entry("misteri4", 48),
+        Map.entry("edge6", UNSOLVABLE),
+        Map.entry("edge7", UNSOLVABLE),
+        Map.entry("tegaklurus", UNSOLVABLE)
+    );
+
+    private static final PrintStream CONSOLE = System.out;
+    private static final PrintStream SILENT = new PrintStream(OutputStream.nullOutputStream());
+
+    private static int checkCount = 0;
+    private static int failureCount = 0;
+
+    /**
+     * Parses a puzzle from the test directory.
+     *
+     * @param name File name without directory and extension
+     * @return Parsed puzzle
+     * @throws IOException If the file cannot be read
+     */
+    public static Parser.ParsedResult load(String name) throws IOException {
+        System.setOut(SILENT);
+        try {
+            return Parser.parseFile("test/" + name + ".txt");
+        } finally {
+            System.setOut(CONSOLE);
+        }
+    }
+
+    /**
+     * Returns every puzzle with a known optimal cost, solvable ones first.
+     *
+     * @return Puzzle names
+     */
+    public static String[] allPuzzles() {
+        List<String> all = new ArrayList<>();
+        all.addAll(Arrays.asList(SMALL));
+        all.addAll(Arrays.asList(MEDIUM));
+        all.addAll(Arrays.asList(NO_SOLUTION));
+        return all.toArray(new String[0]);
+    }
+
+    /**
+     * Returns the optimal number of steps of a puzzle in the test directory.
+     *
+     * @param name File name without directory and extension
+     * @return Optimal step count, or {@link #UNSOLVABLE}
+     */
+    public static int optimalCost(String name) {
+        Integer cost = OPTIMAL_COST.get(name);
+        if (cost == null) {
+            throw new IllegalArgumentException("No known cost for puzzle " + name);
+        }
+        return cost;
+    }
+
+    /**
+     * Collects states reachable from the initial state of a puzzle in breadth-first order.
+     *
+     * @param puzzle Puzzle to explore
+     * @param limit Maximum number of states
+     * @return Distinct states, starting with the initial state
+     */
+    public static List<State> sampleStates(Parser.ParsedResult puzzle, int limit) {
+        List<State> states = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        states.add(puzzle.initialState);
+        seen.add(positionKey(puzzle.initialState));
+        for (int i = 0; i < states.size() && states.size() < limit; i++) {
+            for (State next : states.get(i).generateNextStates(puzzle.width, puzzle.height)) {
+                if (states.size() < limit && seen.add(positionKey(next))) {
+                    states.add(next);
+                }
+            }
+        }
+        return states;
+    }
+
+    /**
+     * Builds puzzles that start a few moves away from a goal, so deep searches such as
+     * IDA* stay fast on boards whose full solution is long. Each state on an optimal
+     * solution near its end is followed by a short random walk.
+     *
+     * @param puzzle Puzzle to take the states from
+     * @param maxRemaining Largest number of optimal moves left from a picked solution state
+     * @param walksPerState Number of random walks from each picked state
+     * @return Puzzles with the same board and a different initial state
+     * @throws Exception If the solver fails
+     */
+    public static List<Parser.ParsedResult> nearGoalPuzzles(Parser.ParsedResult puzzle, int maxRemaining, int walksPerState) throws Exception {
+        List<Parser.ParsedResult> puzzles = new ArrayList<>();
+        State goal = quietly(() -> new AStar(puzzle.width, puzzle.height, puzzle.kRow, puzzle.kCol, puzzle.exitDirection, new BlockingCars()).find(puzzle.initialState));
+        if (goal == null) {
+            return puzzles;
+        }
+
+        Random random = new Random(goal.cost); // Tetap sama di setiap run
+        for (State onPath : goal.getSolutionPath(puzzle.width, puzzle.height)) {
+            if (goal.cost - onPath.cost > maxRemaining) continue;
+            for (int walk = 0; walk < walksPerState; walk++) {
+                State state = onPath;
+                for (int step = random.nextInt(4); step > 0; step--) {
+                    List<State> next = state.generateNextStates(puzzle.width, puzzle.height);
+                    state = next.get(random.nextInt(next.size()));
+                }
+                State start = new State(state.cars, null, null, 0);
+                puzzles.add(new Parser.ParsedResult(start, puzzle.width, puzzle.height, puzzle.kRow, puzzle.kCol, puzzle.exitDirection));
+            }
+        }
+        return puzzles;
+    }
+
+    /**
+     * Runs a solver with its console output suppressed.
+     *
+     * @param solver Call that runs the search
+     * @return Result of the call
+     * @throws Exception If the call fails
+     */
+    public static <T> T quietly(Callable<T> solver) throws Exception {
+        System.setOut(SILENT);
+        try {
+            return solver.call();
+        } finally {
+            System.setOut(CONSOLE);
+        }
+    }
+
+    /**
+     * Checks that a solver returned a valid solution of the expected length,
+     * or no solution if the puzzle is unsolvable. Every step of the returned path
+     * must be a legal move and the last state must be a goal.
+     *
+     * @param label Description of the run
+     * @param puzzle Puzzle that was solved
+     * @param goal Goal state returned by the solver, or null
+     * @param expectedCost Expected step count, or {@link #UNSOLVABLE}
+     */
+    public static void expectSolution(String label, Parser.ParsedResult puzzle, State goal, int expectedCost) {
+        if (expectedCost == UNSOLVABLE) {
+            check(label + ": no solution", goal == null);
+            return;
+        }
+        if (goal == null) {
+            check(label + ": expected cost " + expectedCost + ", got no solution", false);
+            return;
+        }
+        check(label + ": expected cost " + expectedCost + ", got " + goal.cost, goal.cost == expectedCost);
+        check(label + ": path is valid", isValidPath(puzzle, goal));
+    }
+
+    /**
+     * Replays the path of a goal state and checks every step.
+     *
+     * @param puzzle Puzzle that was solved
+     * @param goal Goal state returned by the solver
+     * @return True if the path starts at the initial state, uses only legal moves and ends at a goal
+     */
+    public static boolean isValidPath(Parser.ParsedResult puzzle, State goal) {
+        List<State> path = goal.getSolutionPath(puzzle.width, puzzle.height);
+        if (path.size() != goal.cost + 1 || !samePositions(path.get(0), puzzle.initialState)) {
+            return false;
+        }
+        for (int i = 1; i < path.size(); i++) {
+            State step = path.get(i);
+            if (path.get(i - 1).generateNextStates(puzzle.width, puzzle.height).stream().noneMatch(next -> samePositions(next, step))) {
+                return false;
+            }
+        }
+        State last = path.get(path.size() - 1);
+        return last.isReached(puzzle.width, puzzle.height, puzzle.kRow, puzzle.kCol, puzzle.exitDirection);
+    }
+
+    /**
+     * Describes the cells of every car of a state, ordered by car id.
+     *
+     * @param state State to describe
+     * @return Key that is equal for two states exactly when their cars cover the same cells
+     */
+    public static String positionKey(State state) {
+        StringBuilder key = new StringBuilder();
+        for (Map.Entry<Character, Car> entry : new TreeMap<>(state.cars).entrySet()) {
+            key.append(entry.getKey()).append(Arrays.toString(entry.getValue().bitmask));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Checks whether two states place every car on the same cells.
+     *
+     * @param a First state
+     * @param b Second state
+     * @return True if the positions are the same
+     */
+    public static boolean samePositions(State a, State b) {
+        return positionKey(a).equals(positionKey(b));
+    }
+
+    /**
+     * Records the outcome of a single expectation and reports failures.
+     *
+     * @param label Description of the expectation
+     * @param passed Whether the expectation holds
+     */
+    public static void check(String label, boolean passed) {
+        checkCount++;
+        if (!passed) {
+            failureCount++;
+            System.out.println("FAILED: " + label);
+        }
+    }
+
+    /**
+     * Records that two values are equal.
+     *
+     * @param label Description of the expectation
+     * @param expected Expected value
+     * @param actual Actual value
+     */
+    public static void checkEquals(String label, long expected, long actual) {
+        check(label + ": expected " + expected + ", got " + actual, expected == actual);
+    }
+
+    /**
+     * Prints a summary and exits with a non-zero status if any expectation failed.
+     */
+    public static void finish() {
+        System.out.println(checkCount + " checks, " + failureCount + " failed");
+        if (failureCount > 0) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package test;
+
+import heuristic.BlockingCars;
+import heuristic.Heuristic;
+import heuristic.PatternDatabase;
+import pathfinding.AStar;
+import pathfinding.IDAStar;
+import pathfinding.TranspositionTable;
+import util.PackedState;
+import util.Parser;
+import util.State;
+
+/**
+ * Checks the IDA* transposition table and that IDA* stays optimal with it enabled.
+ */
+public class TranspositionTableTest {
+    private static final int[] TABLE_SIZES = {64, 1 << 16}; // Tabel kecil memaksa penggantian entri
+
+    static void run() throws Exception {
+        checkTable();
+
+        for (String name : TestSupport.SMALL) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            for (Heuristic heuristic : new Heuristic[] {new BlockingCars(), new PatternDatabase()}) {
+                for (int size : TABLE_SIZES) {
+                    State goal = TestSupport.quietly(() -> solve(p, heuristic, size));
+                    TestSupport.expectSolution(name + " IDA* " + heuristic.getName() + " with table of " + size, p, goal, TestSupport.optimalCost(name));
+                }
+            }
+        }
+
+        for (String name : TestSupport.MEDIUM) {
+            for (Parser.ParsedResult p : TestSupport.nearGoalPuzzles(TestSupport.load(name), 6, 1)) {
+                State expected = TestSupport.quietly(() -> new AStar(p.width, p.height, p.kRow, p.kCol, p.exitDirection, new BlockingCars()).find(p.initialState));
+                for (int size : TABLE_SIZES) {
+                    State goal = TestSupport.quietly(() -> solve(p, new BlockingCars(), size));
+                    TestSupport.expectSolution(name + " near goal, IDA* with table of " + size + " against A*", p, goal, expected.cost);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs IDA* with a transposition table.
+     *
+     * @param p Puzzle to solve
+     * @param heuristic Heuristic to use
+     * @param tableSize Number of table entries
+     * @return Goal state, or null if no solution exists
+     */
+    private static State solve(Parser.ParsedResult p, Heuristic heuristic, int tableSize) {
+        IDAStar solver = new IDAStar(p.width, p.height, p.kRow, p.kCol, p.exitDirection, heuristic);
+        solver.setTranspositionTableSize(tableSize);
+        return solver.find(p.initialState);
+    }
+
+    /**
+     * Checks lookups, bound updates and fingerprint collisions on a bare table.
+     */
+    private static void checkTable() {
+        TranspositionTable table = new TranspositionTable(16, 3);
+        PackedState a = new PackedState(new byte[] {1, 2, 3}, null, -1, 0, 99);
+        PackedState sameKey = new PackedState(new byte[] {3, 2, 1}, null, -1, 0, 99);
+
+        TestSupport.checkEquals("empty table has no bound", TranspositionTable.UNKNOWN, table.get(a));
+        table.put(a, 5, 2);
+        TestSupport.checkEquals("stored bound is found", 5, table.get(a));
+        table.put(a, 3, 4);
+        TestSupport.checkEquals("a lower bound does not replace a higher one", 5, table.get(a));
+        table.put(a, 8, 1);
+        TestSupport.checkEquals("a higher bound replaces a lower one", 8, table.get(a));
+
+        // Fingerprint sama tetapi offset beda: bukan state yang sama
+        TestSupport.checkEquals("colliding state has no bound", TranspositionTable.UNKNOWN, table.get(sameKey));
+        table.put(sameKey, 2, 1);
+        TestSupport.checkEquals("colliding state keeps its own bound", 2, table.get(sameKey));
+        TestSupport.checkEquals("original state keeps its bound", 8, table.get(a));
+    }
+}
@@ -0,0 +1,40 @@
+package test;
+
+import util.Board;
+import util.PackedState;
+import util.Parser;
+import util.State;
+import util.Zobrist;
+
+/**
+ * Checks that incrementally updated Zobrist keys match keys computed from scratch.
+ */
+public class ZobristTest {
+    private static final String[] PUZZLES = {"atas", "exp", "misteri4", "testsusah"};
+    private static final int STATES_PER_PUZZLE = 2000;
+
+    static void run() throws Exception {
+        for (String name : PUZZLES) {
+            Parser.ParsedResult p = TestSupport.load(name);
+            Board board = new Board(p.initialState, p.width, p.height, p.kRow, p.kCol, p.exitDirection);
+            boolean stateKeys = true;
+            boolean packedKeys = true;
+            boolean childKeys = true;
+
+            // State contoh dibangkitkan dengan kunci yang diperbarui per langkah
+            for (State state : TestSupport.sampleStates(p, STATES_PER_PUZZLE)) {
+                stateKeys &= state.zobrist == Zobrist.hash(state.cars.values());
+
+                PackedState packed = board.pack(state);
+                packedKeys &= packed.fingerprint == state.zobrist;
+
+                for (PackedState child : board.generateNextStates(packed)) {
+                    childKeys &= child.fingerprint == board.pack(board.unpack(child)).fingerprint;
+                }
+            }
+            TestSupport.check(name + ": State keys match a full hash", stateKeys);
+            TestSupport.check(name + ": packed fingerprints match State keys", packedKeys);
+            TestSupport.check(name + ": packed successor fingerprints match a full hash", childKeys);
+        }
+    }
+}
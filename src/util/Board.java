@@ -0,0 +1,714 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import util.Car.Direction;
+
+/**
+ * Static description of a puzzle shared by every packed state.
+ * Holds per-car data (id, orientation, length, lane) once, so a state only
+ * needs to store the offset of each car along its lane.
+ */
+public class Board {
+    public final int width;
+    public final int height;
+    public final int kRow;
+    public final int kCol;
+    public final String exitDirection;
+    public final int chunkCount;
+
+    public final int carCount;
+    public final char[] ids;
+    public final boolean[] horizontal;
+    public final int[] length;
+    public final int[] lane; // Row untuk mobil horizontal, kolom untuk mobil vertikal
+    public final int primaryIndex;
+    public final int totalCells;
+
+    // Tabel geser, dihitung sekali per papan
+    private final long[][] laneMask;     // [car][chunk]
+    private final long[][][] placement;  // [car][offset][chunk]
+    private final int[][] headChunk;     // [car][offset], chunk of the first cell
+    private final long[][] headBit;      // [car][offset], bit of the first cell
+    private final int[][] tailChunk;     // [car][offset], chunk of the last cell
+    private final long[][] tailBit;      // [car][offset], bit of the last cell
+    private final long[][] zobrist;      // [car][offset]
+    private final long[][] exitLane;     // [offset P][chunk], null jika P tidak bisa keluar
+
+    /**
+     * Creates a board descriptor from a state and the puzzle parameters.
+     * Cars are indexed in the iteration order of the state's car map, so successors
+     * come out in the same order as {@link State#generateNextStates}.
+     *
+     * @param state State whose cars define the board
+     * @param width Width of the puzzle grid
+     * @param height Height of the puzzle grid
+     * @param kRow Row position of the exit
+     * @param kCol Column position of the exit
+     * @param exitDirection Direction of the exit path
+     */
+    public Board(State state, int width, int height, int kRow, int kCol, String exitDirection) {
+        this.width = width;
+        this.height = height;
+        this.kRow = kRow;
+        this.kCol = kCol;
+        this.exitDirection = exitDirection;
+        this.chunkCount = (width * height + 63) / 64;
+
+        List<Character> carIds = new ArrayList<>(state.cars.keySet());
+
+        this.carCount = carIds.size();
+        this.ids = new char[carCount];
+        this.horizontal = new boolean[carCount];
+        this.length = new int[carCount];
+        this.lane = new int[carCount];
+
+        int primary = -1;
+        int cells = 0;
+        for (int i = 0; i < carCount; i++) {
+            Car car = state.cars.get(carIds.get(i));
+            int head = firstCell(car.bitmask);
+            ids[i] = car.id;
+            horizontal[i] = car.isHorizontal;
+            length[i] = car.length;
+            lane[i] = car.isHorizontal ? head / width : head % width;
+            cells += car.length;
+            if (car.id == 'P') primary = i;
+        }
+        this.primaryIndex = primary;
+        this.totalCells = cells;
+
+        this.laneMask = new long[carCount][chunkCount];
+        this.placement = new long[carCount][][];
+        this.headChunk = new int[carCount][];
+        this.headBit = new long[carCount][];
+        this.tailChunk = new int[carCount][];
+        this.tailBit = new long[carCount][];
+        this.zobrist = new long[carCount][];
+        for (int i = 0; i < carCount; i++) {
+            buildSlideTables(i);
+        }
+        this.exitLane = buildExitLanes();
+    }
+
+    /**
+     * Precomputes, for every offset of P, the mask of the cells between P and the exit edge.
+     *
+     * @return Exit lane masks indexed by P's offset, or null if P is missing or cannot leave through the exit
+     */
+    private long[][] buildExitLanes() {
+        int p = primaryIndex;
+        if (p < 0) return null;
+        if (horizontal[p]) {
+            if (!("right".equals(exitDirection) || "left".equals(exitDirection))) return null;
+        } else {
+            if (!("top".equals(exitDirection) || "bottom".equals(exitDirection))) return null;
+        }
+
+        boolean towardEnd = "right".equals(exitDirection) || "bottom".equals(exitDirection);
+        long[][] lanes = new long[placement[p].length][chunkCount];
+        for (int offset = 0; offset < lanes.length; offset++) {
+            int from = towardEnd ? offset + length[p] : 0;
+            int to = towardEnd ? laneLength(p) : offset;
+            for (int o = from; o < to; o++) {
+                int cell = headCell(p, o);
+                lanes[offset][cell / 64] |= (1L << (cell % 64));
+            }
+        }
+        return lanes;
+    }
+
+    /**
+     * Precomputes the lane mask and every placement mask of a car, plus the
+     * first and last cell of each placement used to test one-cell slides
+     * and the Zobrist key of each placement.
+     *
+     * @param car Car index
+     */
+    private void buildSlideTables(int car) {
+        int positions = Math.max(laneLength(car) - length[car] + 1, 0);
+        int step = step(car);
+
+        for (int o = 0; o < laneLength(car); o++) {
+            int cell = headCell(car, o);
+            laneMask[car][cell / 64] |= (1L << (cell % 64));
+        }
+
+        placement[car] = new long[positions][chunkCount];
+        headChunk[car] = new int[positions];
+        headBit[car] = new long[positions];
+        tailChunk[car] = new int[positions];
+        tailBit[car] = new long[positions];
+        zobrist[car] = new long[positions];
+        for (int o = 0; o < positions; o++) {
+            int head = headCell(car, o);
+            int tail = head + (length[car] - 1) * step;
+            for (int cell = head; cell <= tail; cell += step) {
+                placement[car][o][cell / 64] |= (1L << (cell % 64));
+            }
+            headChunk[car][o] = head / 64;
+            headBit[car][o] = 1L << (head % 64);
+            tailChunk[car][o] = tail / 64;
+            tailBit[car][o] = 1L << (tail % 64);
+            zobrist[car][o] = Zobrist.key(ids[car], head);
+        }
+    }
+
+    /**
+     * Returns the precomputed mask of all cells in a car's lane.
+     *
+     * @param car Car index
+     * @return Chunked lane mask, must not be modified
+     */
+    public long[] laneMask(int car) {
+        return laneMask[car];
+    }
+
+    /**
+     * Returns the precomputed mask of the cells covered by a car at an offset.
+     *
+     * @param car Car index
+     * @param offset Offset of the car along its lane
+     * @return Chunked placement mask, must not be modified
+     */
+    public long[] placementMask(int car, int offset) {
+        return placement[car][offset];
+    }
+
+    /**
+     * Converts a state into its packed representation on this board.
+     *
+     * @param state State to pack
+     * @return Packed state with the same car positions and cost
+     */
+    public PackedState pack(State state) {
+        byte[] offsets = new byte[carCount];
+        long fingerprint = 0;
+        for (int i = 0; i < carCount; i++) {
+            Car car = state.cars.get(ids[i]);
+            int head = firstCell(car.bitmask);
+            offsets[i] = (byte) (horizontal[i] ? head % width : head / width);
+            fingerprint ^= Zobrist.key(ids[i], head);
+        }
+        return new PackedState(offsets, null, -1, state.cost, fingerprint);
+    }
+
+    /**
+     * Converts a packed state back into a full state with a car map.
+     * The resulting state has no parent.
+     *
+     * @param packed Packed state to expand
+     * @return State with one Car object per car
+     */
+    public State unpack(PackedState packed) {
+        Map<Character, Car> cars = new HashMap<>();
+        for (int i = 0; i < carCount; i++) {
+            long[] bitmask = placement[i][packed.offset(i)].clone();
+            int col = horizontal[i] ? -1 : lane[i];
+            int row = horizontal[i] ? lane[i] : -1;
+            cars.put(ids[i], new Car(ids[i], horizontal[i], length[i], bitmask, col, row));
+        }
+        return new State(cars, null, packed.parent == null ? "" : moveName(packed), packed.cost);
+    }
+
+    /**
+     * Rebuilds the full state chain from the initial state to the given packed state,
+     * so callers can walk {@code parent} links and read {@code move} as usual.
+     *
+     * @param packed Last packed state of the path
+     * @return Unpacked state whose parent chain mirrors the packed path
+     */
+    public State unpackPath(PackedState packed) {
+        List<PackedState> chain = new ArrayList<>();
+        for (PackedState cur = packed; cur != null; cur = cur.parent) {
+            chain.add(cur);
+        }
+        Collections.reverse(chain);
+
+        State prev = null;
+        for (PackedState node : chain) {
+            State state = unpack(node);
+            state.parent = prev;
+            prev = state;
+        }
+        return prev;
+    }
+
+    /**
+     * Unpacks a goal state whose path was recorded in a {@link PathStore}.
+     * The returned state has no parent chain; it keeps the initial state and
+     * the packed moves so the path can be replayed with {@link State#getSolutionPath}.
+     *
+     * @param packed Goal state
+     * @param initialState Initial state of the search
+     * @param paths Path store the goal state was recorded in
+     * @return Goal state with its compact path
+     */
+    public State unpackPath(PackedState packed, State initialState, PathStore paths) {
+        State state = unpack(packed);
+        state.origin = initialState;
+        state.pathMoves = paths.movesTo(packed.node);
+        if (state.pathMoves.length > 0) {
+            state.move = PathStore.describe(state.pathMoves[state.pathMoves.length - 1]);
+        }
+        return state;
+    }
+
+    /**
+     * Returns the move description of a packed state, e.g. "A-right".
+     *
+     * @param packed Packed state created by a move
+     * @return Move description in the same format as {@link State#generateNextStates}
+     */
+    public String moveName(PackedState packed) {
+        int car = packed.moveCar;
+        boolean forward = packed.offset(car) > packed.parent.offset(car);
+        String dir;
+        if (horizontal[car]) {
+            dir = forward ? "right" : "left";
+        } else {
+            dir = forward ? "down" : "up";
+        }
+        return ids[car] + "-" + dir;
+    }
+
+    /**
+     * Returns the board cell index of a car's first (top or left) cell.
+     *
+     * @param car Car index
+     * @param offset Offset of the car along its lane
+     * @return Cell index in row-major order
+     */
+    public int headCell(int car, int offset) {
+        return horizontal[car] ? lane[car] * width + offset : offset * width + lane[car];
+    }
+
+    /**
+     * Returns the cell index distance between two consecutive cells of a car.
+     *
+     * @param car Car index
+     * @return 1 for horizontal cars, width for vertical cars
+     */
+    public int step(int car) {
+        return horizontal[car] ? 1 : width;
+    }
+
+    /**
+     * Returns the number of cells along a car's lane.
+     *
+     * @param car Car index
+     * @return Width for horizontal cars, height for vertical cars
+     */
+    public int laneLength(int car) {
+        return horizontal[car] ? width : height;
+    }
+
+    /**
+     * Builds the bit mask of all occupied cells for a packed state.
+     *
+     * @param packed Packed state
+     * @return Long array representing occupied cells
+     */
+    public long[] occupancy(PackedState packed) {
+        long[] occupied = new long[chunkCount];
+        for (int i = 0; i < carCount; i++) {
+            long[] mask = placement[i][packed.offset(i)];
+            for (int c = 0; c < chunkCount; c++) {
+                occupied[c] |= mask[c];
+            }
+        }
+        return occupied;
+    }
+
+    /**
+     * Checks whether two cars cover the same cell.
+     * Such a state can only come from a malformed puzzle file and has no legal moves.
+     *
+     * @param packed Packed state
+     * @return True if at least one cell is covered twice
+     */
+    public boolean hasOverlap(PackedState packed) {
+        int occupiedCells = 0;
+        for (long chunk : occupancy(packed)) {
+            occupiedCells += Long.bitCount(chunk);
+        }
+        return occupiedCells != totalCells;
+    }
+
+    /**
+     * Checks whether a cell is set in an occupancy mask.
+     *
+     * @param occupied Occupancy mask
+     * @param cell Cell index
+     * @return True if the cell is occupied
+     */
+    public static boolean isSet(long[] occupied, int cell) {
+        return (occupied[cell / 64] & (1L << (cell % 64))) != 0;
+    }
+
+    /**
+     * Checks if the primary car can reach the exit in a packed state.
+     * Same rule as {@link State#isReached}: the lane between P and the exit edge must be empty.
+     * Every other car's placement is masked with the precomputed exit lane of P's offset,
+     * so no occupancy bitboard is built.
+     *
+     * @param packed Packed state to test
+     * @return True if goal state is reached, false otherwise
+     */
+    public boolean isReached(PackedState packed) {
+        if (exitLane == null) return false;
+        long[] lane = exitLane[packed.offset(primaryIndex)];
+        for (int i = 0; i < carCount; i++) {
+            if (i == primaryIndex) continue;
+            long[] mask = placement[i][packed.offset(i)];
+            for (int c = 0; c < chunkCount; c++) {
+                if ((mask[c] & lane[c]) != 0) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Goal test against an occupancy bitboard that is already known:
+     * a single masked AND with the precomputed exit lane of P's offset.
+     *
+     * @param occupied Occupancy bitboard of the state
+     * @param primaryOffset Offset of P in that state
+     * @return True if goal state is reached, false otherwise
+     */
+    public boolean isReached(long[] occupied, int primaryOffset) {
+        if (exitLane == null) return false;
+        long[] lane = exitLane[primaryOffset];
+        for (int c = 0; c < chunkCount; c++) {
+            if ((occupied[c] & lane[c]) != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Enumerates every placement of the cars that satisfies {@link #isReached}:
+     * no two cars overlap and the lane between P and the exit edge is empty.
+     * Each car stays in its own lane and cars in one lane can never pass each other,
+     * so only placements that keep the lane order of the initial state are built;
+     * these are all the goals reachable from it.
+     *
+     * @param initial State whose lane order the goals keep
+     * @param limit Maximum number of goal states to build
+     * @return Goal states with cost 0 and no parent, or null if there are more than the limit
+     */
+    public List<PackedState> goalStates(PackedState initial, int limit) {
+        List<PackedState> goals = new ArrayList<>();
+        if (primaryIndex < 0) return goals;
+        int p = primaryIndex;
+        if (horizontal[p]) {
+            if (!("right".equals(exitDirection) || "left".equals(exitDirection))) return goals;
+        } else {
+            if (!("top".equals(exitDirection) || "bottom".equals(exitDirection))) return goals;
+        }
+        boolean towardEnd = "right".equals(exitDirection) || "bottom".equals(exitDirection);
+
+        byte[] offsets = new byte[carCount];
+        for (int o = 0; o < placement[p].length; o++) {
+            // Sel antara P dan pintu keluar ikut ditandai terisi supaya tidak ditempati mobil lain
+            long[] occupied = placement[p][o].clone();
+            int from = towardEnd ? o + length[p] : 0;
+            int to = towardEnd ? laneLength(p) : o;
+            for (int lo = from; lo < to; lo++) {
+                int cell = headCell(p, lo);
+                occupied[cell / 64] |= 1L << (cell % 64);
+            }
+            offsets[p] = (byte) o;
+            if (!placeGoalCars(0, initial, offsets, occupied, zobrist[p][o], goals, limit)) return null;
+        }
+        return goals;
+    }
+
+    /**
+     * Places the remaining non-primary cars in every free position, depth first.
+     *
+     * @param car Next car index to place
+     * @param initial State whose lane order the goals keep
+     * @param offsets Offsets chosen so far
+     * @param occupied Cells taken by the cars placed so far
+     * @param fingerprint Zobrist hash of the cars placed so far
+     * @param goals Output list of complete goal states
+     * @param limit Maximum number of goal states
+     * @return False if the limit was exceeded
+     */
+    private boolean placeGoalCars(int car, PackedState initial, byte[] offsets, long[] occupied, long fingerprint,
+                                  List<PackedState> goals, int limit) {
+        if (car == primaryIndex) car++;
+        if (car == carCount) {
+            if (goals.size() >= limit) return false;
+            goals.add(new PackedState(offsets.clone(), null, -1, 0, fingerprint));
+            return true;
+        }
+
+        for (int o = 0; o < placement[car].length; o++) {
+            long[] mask = placement[car][o];
+            boolean free = true;
+            for (int c = 0; c < chunkCount && free; c++) {
+                free = (occupied[c] & mask[c]) == 0;
+            }
+            if (!free || !keepsLaneOrder(initial, offsets, car, o)) continue;
+
+            for (int c = 0; c < chunkCount; c++) {
+                occupied[c] |= mask[c];
+            }
+            offsets[car] = (byte) o;
+            boolean withinLimit = placeGoalCars(car + 1, initial, offsets, occupied, fingerprint ^ zobrist[car][o], goals, limit);
+            for (int c = 0; c < chunkCount; c++) {
+                occupied[c] &= ~mask[c];
+            }
+            if (!withinLimit) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks that a car placed at an offset keeps its order along the lane with the cars
+     * of the same lane placed before it: P and the cars with a lower index.
+     *
+     * @param initial State whose lane order is kept
+     * @param offsets Offsets chosen so far
+     * @param car Car being placed
+     * @param offset Offset tried for that car
+     * @return True if no car of the same lane was passed
+     */
+    private boolean keepsLaneOrder(PackedState initial, byte[] offsets, int car, int offset) {
+        for (int other = 0; other < carCount; other++) {
+            boolean placed = other < car || other == primaryIndex;
+            if (other == car || !placed) continue;
+            if (horizontal[other] != horizontal[car] || lane[other] != lane[car]) continue;
+            boolean before = initial.offset(other) < initial.offset(car);
+            if (before != (offsets[other] < offset)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Generates all valid next states by sliding each car in both directions
+     * along its lane, one state per reachable distance.
+     * A state with overlapping cars has no successors, like in {@link State#generateNextStates}.
+     *
+     * @param packed State to expand
+     * @return List of valid successor states
+     */
+    public List<PackedState> generateNextStates(PackedState packed) {
+        List<PackedState> nextStates = new ArrayList<>();
+        MoveCursor cursor = newCursor();
+        cursor.reset(packed);
+        while (cursor.next()) {
+            nextStates.add(cursor.materialize());
+        }
+        return nextStates;
+    }
+
+    /**
+     * Moves a car of a state in place, updating its fingerprint.
+     * Only meant for a working state that is not stored in any table or set,
+     * so a search can do and undo moves without allocating.
+     *
+     * @param state State to change
+     * @param car Index of the car to move
+     * @param newOffset New offset of the car
+     */
+    public void apply(PackedState state, int car, int newOffset) {
+        state.fingerprint ^= zobrist[car][state.offset(car)] ^ zobrist[car][newOffset];
+        state.offsets[car] = (byte) newOffset;
+    }
+
+    /**
+     * Creates a reusable cursor over the moves of a state.
+     *
+     * @return New move cursor for this board
+     */
+    public MoveCursor newCursor() {
+        return new MoveCursor();
+    }
+
+    /**
+     * Lazy, allocation-free iterator over the successors of a packed state.
+     * Each call to {@link #next()} describes one move (car, new offset and the
+     * successor's fingerprint); a successor object is only built by
+     * {@link #materialize()}. Moves come in the same order as {@link #generateNextStates}.
+     * Each slide step is a single AND of a precomputed cell bit against the occupancy.
+     */
+    public class MoveCursor {
+        public int car;
+        public int offset;
+        public long fingerprint;
+
+        private PackedState parent;
+        private final long[] occupied = new long[chunkCount];
+        private int start;
+        private boolean forward;
+
+        /**
+         * Points the cursor at the moves of a new state.
+         *
+         * @param state State whose successors are iterated
+         */
+        public void reset(PackedState state) {
+            parent = state;
+            Arrays.fill(occupied, 0);
+            int occupiedCells = 0;
+            for (int i = 0; i < carCount; i++) {
+                long[] mask = placement[i][state.offset(i)];
+                for (int c = 0; c < chunkCount; c++) {
+                    occupied[c] |= mask[c];
+                }
+            }
+            for (long chunk : occupied) {
+                occupiedCells += Long.bitCount(chunk);
+            }
+
+            // Overlapping cars have no legal moves
+            car = occupiedCells != totalCells ? carCount : 0;
+            if (car < carCount) {
+                start = state.offset(0);
+                offset = start;
+            }
+            forward = false;
+        }
+
+        /**
+         * Advances to the next legal move.
+         *
+         * @return True if a move is available, false when all moves were visited
+         */
+        public boolean next() {
+            while (car < carCount) {
+                if (!forward) {
+                    // Left / up: the new first cell must be free
+                    int o = offset - 1;
+                    if (o >= 0 && (occupied[headChunk[car][o]] & headBit[car][o]) == 0) {
+                        return select(o);
+                    }
+                    forward = true;
+                    offset = start;
+                }
+
+                // Right / down: the new last cell must be free
+                int o = offset + 1;
+                if (o < tailChunk[car].length && (occupied[tailChunk[car][o]] & tailBit[car][o]) == 0) {
+                    return select(o);
+                }
+
+                car++;
+                forward = false;
+                if (car < carCount) {
+                    start = parent.offset(car);
+                    offset = start;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Tests whether the current move leads to a goal state without building the successor.
+         * The parent's occupancy is updated for the moved car and masked with P's exit lane.
+         *
+         * @return True if the successor satisfies {@link #isReached(PackedState)}
+         */
+        public boolean leadsToGoal() {
+            if (exitLane == null) return false;
+            long[] lane = exitLane[car == primaryIndex ? offset : parent.offset(primaryIndex)];
+            long[] before = placement[car][start];
+            long[] after = placement[car][offset];
+            for (int c = 0; c < chunkCount; c++) {
+                if ((((occupied[c] & ~before[c]) | after[c]) & lane[c]) != 0) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Builds the successor for the current move.
+         *
+         * @return New packed state with the parent of this cursor
+         */
+        public PackedState materialize() {
+            return parent.moved(car, offset, zobrist[car][start] ^ zobrist[car][offset]);
+        }
+
+        /**
+         * Builds the successor for the current move without a parent reference.
+         * The move is recorded in the path store instead.
+         *
+         * @param paths Path store of the search
+         * @return New packed state linked to its parent by node index only
+         */
+        public PackedState materialize(PathStore paths) {
+            PackedState child = materialize();
+            child.parent = null;
+            child.node = paths.add(parent.node, move());
+            return child;
+        }
+
+        /**
+         * Packs the current move for a {@link PathStore}.
+         *
+         * @return Packed move with car id, direction and distance
+         */
+        public int move() {
+            boolean forward = offset > start;
+            Direction dir;
+            if (horizontal[car]) {
+                dir = forward ? Direction.RIGHT : Direction.LEFT;
+            } else {
+                dir = forward ? Direction.DOWN : Direction.UP;
+            }
+            return PathStore.encode(ids[car], dir, Math.abs(offset - start));
+        }
+
+        /**
+         * Checks whether the current move leads to the given state.
+         *
+         * @param state State to compare with
+         * @return True if the successor of the current move has the same car offsets
+         */
+        public boolean leadsTo(PackedState state) {
+            return state.fingerprint == fingerprint && state.equalsMove(parent, car, offset);
+        }
+
+        /**
+         * Records the current move and its fingerprint.
+         *
+         * @param newOffset Offset the car moves to
+         * @return Always true
+         */
+        private boolean select(int newOffset) {
+            offset = newOffset;
+            fingerprint = parent.fingerprint ^ zobrist[car][start] ^ zobrist[car][newOffset];
+            return true;
+        }
+
+        /**
+         * Returns the state whose moves are iterated.
+         *
+         * @return Parent of the current move
+         */
+        public PackedState parent() {
+            return parent;
+        }
+    }
+
+    /**
+     * Finds the index of the lowest set bit in a chunked mask.
+     *
+     * @param bitmask Chunked bit mask
+     * @return Cell index of the first set bit, or -1 if empty
+     */
+    private static int firstCell(long[] bitmask) {
+        for (int chunk = 0; chunk < bitmask.length; chunk++) {
+            if (bitmask[chunk] != 0) {
+                return chunk * 64 + Long.numberOfTrailingZeros(bitmask[chunk]);
+            }
+        }
+        return -1;
+    }
+}
@@ -61,6 +61,8 @@ public class Car {
 
     /**
      * Creates a new car shifted one cell in the specified direction.
+     * The whole mask is bit-shifted at once; only the car's first and last
+     * cells are inspected to reject moves off the board or out of its lane.
      * 
      * @param dir Direction to shift the car
      * @param width Width of the puzzle grid
@@ -70,35 +72,158 @@ public class Car {
     public Car shift(Direction dir, int width, int height) {
         int totalBits = width * height;
         int chunkCount = (totalBits + 63) / 64;
-        long[] shifted = new long[chunkCount];
 
-        int offset = switch (dir) {
-            case LEFT -> -1;
-            case RIGHT -> 1;
-            case UP -> -width;
-            case DOWN -> width;
-        };
-        
-        for (int i = 0; i < totalBits; i++) {
-            int chunk = i / 64;
-            int bit = i % 64;
-            if ((bitmask[chunk] & (1L << bit)) != 0) {
-                int newIndex = i + offset;
-
-                if (newIndex < 0 || newIndex >= totalBits) return null;
-
-                int newRow = newIndex / width;
-                int newCol = newIndex % width;
-                int oldRow = i / width;
-                int oldCol = i % width;
-
-                if (isHorizontal && newRow != oldRow) return null;
-                if (!isHorizontal && newCol != oldCol) return null;
-
-                shifted[newIndex / 64] |= (1L << (newIndex % 64));
+        // Moving across the lane always changes the row (or column) of a cell
+        boolean alongLane = isHorizontal ?
+                (dir == Direction.LEFT || dir == Direction.RIGHT) :
+                (dir == Direction.UP || dir == Direction.DOWN);
+        if (!alongLane) return null;
+
+        int first = firstCell();
+        int last = lastCell();
+        if (first < 0) return null;
+
+        int offset;
+        switch (dir) {
+            case LEFT:
+                if (first % width == 0) return null;
+                offset = -1;
+                break;
+            case RIGHT:
+                if (last % width == width - 1) return null;
+                offset = 1;
+                break;
+            case UP:
+                if (first < width) return null;
+                offset = -width;
+                break;
+            default: // DOWN
+                if (last + width >= totalBits) return null;
+                offset = width;
+                break;
+        }
+
+        return new Car(id, isHorizontal, length, shiftBits(bitmask, offset, chunkCount), col, row);
+    }
+
+    /**
+     * Returns the index of the lowest occupied cell of this car.
+     * 
+     * @return Cell index, or -1 if the car has no cells
+     */
+    public int firstCell() {
+        for (int chunk = 0; chunk < bitmask.length; chunk++) {
+            if (bitmask[chunk] != 0) {
+                return chunk * 64 + Long.numberOfTrailingZeros(bitmask[chunk]);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the highest occupied cell of this car.
+     * 
+     * @return Cell index, or -1 if the car has no cells
+     */
+    public int lastCell() {
+        for (int chunk = bitmask.length - 1; chunk >= 0; chunk--) {
+            if (bitmask[chunk] != 0) {
+                return chunk * 64 + 63 - Long.numberOfLeadingZeros(bitmask[chunk]);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the leftmost column covered by this car.
+     * A car inside one row starts at its lowest cell; otherwise only the set bits are visited.
+     * 
+     * @param width Width of the puzzle grid
+     * @return Column index, or Integer.MAX_VALUE if the car has no cells
+     */
+    public int minColumn(int width) {
+        int first = firstCell();
+        if (first < 0) return Integer.MAX_VALUE;
+        if (first / width == lastCell() / width) return first % width;
+
+        int leftmost = Integer.MAX_VALUE;
+        for (int chunk = 0; chunk < bitmask.length; chunk++) {
+            for (long bits = bitmask[chunk]; bits != 0; bits &= bits - 1) {
+                leftmost = Math.min(leftmost, (chunk * 64 + Long.numberOfTrailingZeros(bits)) % width);
             }
         }
+        return leftmost;
+    }
 
-        return new Car(id, isHorizontal, length, shifted, col, row);
+    /**
+     * Returns the rightmost column covered by this car.
+     * A car inside one row ends at its highest cell; otherwise only the set bits are visited.
+     * 
+     * @param width Width of the puzzle grid
+     * @return Column index, or -1 if the car has no cells
+     */
+    public int maxColumn(int width) {
+        int last = lastCell();
+        if (last < 0) return -1;
+        if (firstCell() / width == last / width) return last % width;
+
+        int rightmost = -1;
+        for (int chunk = 0; chunk < bitmask.length; chunk++) {
+            for (long bits = bitmask[chunk]; bits != 0; bits &= bits - 1) {
+                rightmost = Math.max(rightmost, (chunk * 64 + Long.numberOfTrailingZeros(bits)) % width);
+            }
+        }
+        return rightmost;
+    }
+
+    /**
+     * Returns the topmost row covered by this car, the row of its lowest cell.
+     * 
+     * @param width Width of the puzzle grid
+     * @return Row index, or Integer.MAX_VALUE if the car has no cells
+     */
+    public int minRow(int width) {
+        int first = firstCell();
+        return first < 0 ? Integer.MAX_VALUE : first / width;
+    }
+
+    /**
+     * Returns the bottommost row covered by this car, the row of its highest cell.
+     * 
+     * @param width Width of the puzzle grid
+     * @return Row index, or -1 if the car has no cells
+     */
+    public int maxRow(int width) {
+        int last = lastCell();
+        return last < 0 ? -1 : last / width;
+    }
+
+    /**
+     * Shifts a chunked bit mask towards higher (positive amount) or lower cell indexes.
+     * 
+     * @param mask Mask to shift
+     * @param amount Number of cells to shift by
+     * @param chunkCount Number of chunks in the result
+     * @return New shifted mask
+     */
+    private static long[] shiftBits(long[] mask, int amount, int chunkCount) {
+        long[] shifted = new long[chunkCount];
+        int words = Math.abs(amount) / 64;
+        int bits = Math.abs(amount) % 64;
+
+        for (int i = 0; i < chunkCount; i++) {
+            long value = 0;
+            if (amount > 0) {
+                int src = i - words;
+                if (src >= 0 && src < mask.length) value = mask[src] << bits;
+                if (bits != 0 && src - 1 >= 0 && src - 1 < mask.length) value |= mask[src - 1] >>> (64 - bits);
+            } else {
+                int src = i + words;
+                if (src < mask.length) value = mask[src] >>> bits;
+                if (bits != 0 && src + 1 < mask.length) value |= mask[src + 1] << (64 - bits);
+            }
+            shifted[i] = value;
+        }
+        return shifted;
     }
 }
@@ -0,0 +1,110 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Compact state of the rush hour puzzle.
+ * Stores only the offset of each car along its lane; everything else
+ * lives once in the shared {@link Board}.
+ */
+public class PackedState {
+    public final byte[] offsets;
+    public PackedState parent;
+    public int moveCar; // Index mobil yang digeser, -1 untuk state awal
+    public int cost;
+    public int h; // Nilai heuristik, dihitung sekali saat state dibangkitkan
+    public int f; // cost + h
+    public long fingerprint; // Hanya diubah lewat Board.apply pada state kerja
+    public int node = PathStore.ROOT; // Index simpul di PathStore, jika dipakai
+
+    /**
+     * Creates a new packed state.
+     *
+     * @param offsets Offset of each car along its lane, indexed like {@link Board#ids}
+     * @param parent Parent state that led to this state
+     * @param moveCar Index of the car moved to create this state, -1 for the initial state
+     * @param cost Path cost to reach this state
+     * @param fingerprint Zobrist hash of the car offsets
+     */
+    public PackedState(byte[] offsets, PackedState parent, int moveCar, int cost, long fingerprint) {
+        this.offsets = offsets;
+        this.parent = parent;
+        this.moveCar = moveCar;
+        this.cost = cost;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Returns the offset of a car along its lane.
+     *
+     * @param car Car index
+     * @return Offset of the car's first cell
+     */
+    public int offset(int car) {
+        return offsets[car] & 0xFF;
+    }
+
+    /**
+     * Creates a successor with one car moved to a new offset.
+     * The fingerprint is updated incrementally instead of being recomputed.
+     *
+     * @param car Index of the car to move
+     * @param newOffset New offset of the car
+     * @param fingerprintDelta XOR of the car's Zobrist keys at the old and new offset
+     * @return New packed state with this state as parent and incremented cost
+     */
+    public PackedState moved(int car, int newOffset, long fingerprintDelta) {
+        byte[] next = offsets.clone();
+        next[car] = (byte) newOffset;
+        return new PackedState(next, this, car, cost + 1, fingerprint ^ fingerprintDelta);
+    }
+
+    /**
+     * Copies the car offsets and fingerprint of another state into this one.
+     *
+     * @param other State to copy from, with the same number of cars
+     */
+    public void copyFrom(PackedState other) {
+        System.arraycopy(other.offsets, 0, offsets, 0, offsets.length);
+        fingerprint = other.fingerprint;
+    }
+
+    /**
+     * Checks whether this state equals another state with one car moved,
+     * without building that state.
+     *
+     * @param base State before the move
+     * @param car Index of the moved car
+     * @param newOffset Offset of the moved car after the move
+     * @return True if the car offsets are identical
+     */
+    public boolean equalsMove(PackedState base, int car, int newOffset) {
+        if (offset(car) != newOffset) return false;
+        for (int i = 0; i < offsets.length; i++) {
+            if (i != car && offsets[i] != base.offsets[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Generates a hash code for this state based on car offsets.
+     *
+     * @return Hash code value for this state
+     */
+    @Override
+    public int hashCode() {
+        return (int) (fingerprint ^ (fingerprint >>> 32));
+    }
+
+    /**
+     * Compares car offsets of this state with another state.
+     *
+     * @param obj Object to compare with
+     * @return True if all cars are at the same offsets, false otherwise
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof PackedState other)) return false;
+        return fingerprint == other.fingerprint && Arrays.equals(offsets, other.offsets);
+    }
+}
@@ -0,0 +1,125 @@
+package util;
+
+import java.util.Arrays;
+import util.Car.Direction;
+
+/**
+ * Compact store for the search tree of a solver.
+ * Every node keeps only the index of its parent and one packed move
+ * (car id, direction and distance) in primitive arrays, so expanded
+ * states do not have to stay reachable through parent references.
+ * The solution is rebuilt afterwards by replaying the moves from the initial state.
+ */
+public class PathStore {
+    public static final int ROOT = -1; // Parent dari simpul akar
+
+    private int[] parents;
+    private int[] moves;
+    private int size;
+
+    /**
+     * Creates an empty path store.
+     */
+    public PathStore() {
+        this.parents = new int[1 << 10];
+        this.moves = new int[1 << 10];
+        this.size = 0;
+    }
+
+    /**
+     * Adds a node to the store.
+     *
+     * @param parent Index of the parent node, or {@link #ROOT} for the initial state
+     * @param move Packed move that leads from the parent to this node
+     * @return Index of the new node
+     */
+    public int add(int parent, int move) {
+        if (size == parents.length) {
+            parents = Arrays.copyOf(parents, size * 2);
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        parents[size] = parent;
+        moves[size] = move;
+        return size++;
+    }
+
+    /**
+     * Returns the number of stored nodes.
+     *
+     * @return Number of nodes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Collects the packed moves from the initial state to a node.
+     *
+     * @param node Index of the last node
+     * @return Packed moves in order from the initial state
+     */
+    public int[] movesTo(int node) {
+        int length = 0;
+        for (int cur = node; parents[cur] != ROOT; cur = parents[cur]) {
+            length++;
+        }
+
+        int[] path = new int[length];
+        for (int cur = node; parents[cur] != ROOT; cur = parents[cur]) {
+            path[--length] = moves[cur];
+        }
+        return path;
+    }
+
+    /**
+     * Packs a move into a single int.
+     *
+     * @param carId ID of the moved car
+     * @param direction Direction of the move
+     * @param distance Number of cells the car slides
+     * @return Packed move
+     */
+    public static int encode(char carId, Direction direction, int distance) {
+        return (carId << 16) | (direction.ordinal() << 8) | distance;
+    }
+
+    /**
+     * Returns the car ID of a packed move.
+     *
+     * @param move Packed move
+     * @return ID of the moved car
+     */
+    public static char carId(int move) {
+        return (char) (move >>> 16);
+    }
+
+    /**
+     * Returns the direction of a packed move.
+     *
+     * @param move Packed move
+     * @return Direction of the move
+     */
+    public static Direction direction(int move) {
+        return Direction.values()[(move >>> 8) & 0xFF];
+    }
+
+    /**
+     * Returns the distance of a packed move.
+     *
+     * @param move Packed move
+     * @return Number of cells the car slides
+     */
+    public static int distance(int move) {
+        return move & 0xFF;
+    }
+
+    /**
+     * Describes a packed move in the same format as {@link State#move}.
+     *
+     * @param move Packed move
+     * @return Move description such as "A-right"
+     */
+    public static String describe(int move) {
+        return carId(move) + "-" + direction(move).name().toLowerCase();
+    }
+}
@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import util.Car.Direction;
 
@@ -16,6 +17,10 @@ public class State {
     public String move;
     public long[] occupied;
     public int cost;
+    public long zobrist; // Hash posisi mobil, perbarui jika cars diubah langsung
+    public State origin; // State awal, hanya diisi jika jalur disimpan di PathStore
+    public int[] pathMoves; // Langkah terkompresi dari origin ke state ini
+    private Car[] owners; // Indeks sel ke mobil, dibangun saat pertama kali dipakai
 
     /**
      * Creates a new state with the specified parameters.
@@ -44,10 +49,32 @@ public class State {
                 this.occupied[i] |= car.bitmask[i];
             }
         }
+        
+        this.zobrist = Zobrist.hash(cars.values());
+    }
+    
+    /**
+     * Creates a state whose occupancy and hash are already known.
+     * 
+     * @param cars Map of car IDs to Car objects
+     * @param parent Parent state that led to this state
+     * @param move Description of the move that created this state
+     * @param cost Path cost to reach this state
+     * @param occupied Bit mask of occupied cells
+     * @param zobrist Zobrist hash of the car positions
+     */
+    private State(Map<Character, Car> cars, State parent, String move, int cost, long[] occupied, long zobrist) {
+        this.cars = cars;
+        this.parent = parent;
+        this.move = move;
+        this.cost = cost;
+        this.occupied = occupied;
+        this.zobrist = zobrist;
     }
 
     /**
      * Creates a copy of the current state with a new parent and move.
+     * The occupancy and hash are copied rather than rebuilt.
      * 
      * @param newParent Parent state for the new copy
      * @param newMove Move description for the new copy
@@ -58,7 +85,41 @@ public class State {
         for (Map.Entry<Character, Car> entry : cars.entrySet()) {
             newCars.put(entry.getKey(), entry.getValue().copy());
         }
-        return new State(newCars, newParent, newMove, cost + 1);
+        return new State(newCars, newParent, newMove, cost + 1, occupied.clone(), zobrist);
+    }
+
+    /**
+     * Returns the car that covers a cell.
+     * The cell-to-car index is built from the car bitmasks on the first lookup and
+     * kept with the state, so every later lookup takes constant time.
+     * 
+     * @param cell Cell index (row * width + col)
+     * @return The car on that cell, or null if the cell is empty
+     */
+    public Car carAt(int cell) {
+        if (owners == null) {
+            owners = buildOwners();
+        }
+        return cell >= 0 && cell < owners.length ? owners[cell] : null;
+    }
+    
+    /**
+     * Builds the cell-to-car index by visiting the set bits of every car's bitmask.
+     * 
+     * @return Array indexed by cell, null for empty cells
+     */
+    private Car[] buildOwners() {
+        Car[] index = new Car[occupied.length * 64];
+        for (Car car : cars.values()) {
+            for (int chunk = 0; chunk < car.bitmask.length && chunk < occupied.length; chunk++) {
+                long bits = car.bitmask[chunk];
+                while (bits != 0) {
+                    index[chunk * 64 + Long.numberOfTrailingZeros(bits)] = car;
+                    bits &= bits - 1;
+                }
+            }
+        }
+        return index;
     }
 
     /**
@@ -103,19 +164,8 @@ public class State {
             if (!("right".equals(exitDirection) || "left".equals(exitDirection))) return false;
             
             // Find P's leftmost and rightmost positions
-            int pLeftmostCol = -1;
-            int pRightmostCol = -1;
-            
-            for (int c = 0; c < width; c++) {
-                int idx = primaryCar.row * width + c;
-                int chunk = idx / 64;
-                int bit = idx % 64;
-                
-                if (chunk < primaryCar.bitmask.length && (primaryCar.bitmask[chunk] & (1L << bit)) != 0) {
-                    if (pLeftmostCol == -1) pLeftmostCol = c;
-                    pRightmostCol = c;
-                }
-            }
+            int pLeftmostCol = primaryCar.minColumn(width);
+            int pRightmostCol = primaryCar.maxColumn(width);
             
             // Check clear path to exit
             if ("right".equals(exitDirection)) {
@@ -132,7 +182,7 @@ public class State {
                 return true; // Clear path to right edge
             } else { // left
                 // Check if path to the left edge is clear
-                for (int c = 0; c < pLeftmostCol; c++) {
+                for (int c = 0; c < pLeftmostCol && c < width; c++) {
                     int idx = primaryCar.row * width + c;
                     int chunk = idx / 64;
                     int bit = idx % 64;
@@ -148,19 +198,8 @@ public class State {
             if (!("top".equals(exitDirection) || "bottom".equals(exitDirection))) return false;
             
             // Find P's topmost and bottommost positions
-            int pTopmostRow = -1;
-            int pBottommostRow = -1;
-            
-            for (int r = 0; r < height; r++) {
-                int idx = r * width + primaryCar.col;
-                int chunk = idx / 64;
-                int bit = idx % 64;
-                
-                if (chunk < primaryCar.bitmask.length && (primaryCar.bitmask[chunk] & (1L << bit)) != 0) {
-                    if (pTopmostRow == -1) pTopmostRow = r;
-                    pBottommostRow = r;
-                }
-            }
+            int pTopmostRow = primaryCar.minRow(width);
+            int pBottommostRow = primaryCar.maxRow(width);
             
             // Check clear path to exit
             if ("bottom".equals(exitDirection)) {
@@ -177,7 +216,7 @@ public class State {
                 return true; // Clear path to bottom edge
             } else { // top
                 // Check if path to the top edge is clear
-                for (int r = 0; r < pTopmostRow; r++) {
+                for (int r = 0; r < pTopmostRow && r < height; r++) {
                     int idx = r * width + primaryCar.col;
                     int chunk = idx / 64;
                     int bit = idx % 64;
@@ -193,6 +232,8 @@ public class State {
 
     /**
      * Generates all valid next states by moving each car in all possible directions.
+     * The occupancy is built once; each slide step only tests the moved car
+     * against the cells of the other cars.
      * 
      * @param width Width of the puzzle grid
      * @param height Height of the puzzle grid
@@ -200,49 +241,53 @@ public class State {
      */
     public List<State> generateNextStates(int width, int height) {
         List<State> nextStates = new ArrayList<>();
+        long[] occupied = buildOccupiedMask(cars, width, height);
+        
+        // Overlapping cars make every move collide
+        int totalBits = 0;
+        for (Car c : cars.values()) {
+            for (int i = 0; i < c.bitmask.length; i++) {
+                totalBits += Long.bitCount(c.bitmask[i]);
+            }
+        }
+        int occupiedBits = 0;
+        for (int i = 0; i < occupied.length; i++) {
+            occupiedBits += Long.bitCount(occupied[i]);
+        }
+        if (totalBits != occupiedBits) {
+            return nextStates;
+        }
         
         for (Map.Entry<Character, Car> entry : cars.entrySet()) {
             char carId = entry.getKey();
             Car car = entry.getValue();
             
+            // Cells taken by every car except this one
+            long[] others = occupied.clone();
+            for (int i = 0; i < others.length && i < car.bitmask.length; i++) {
+                others[i] &= ~car.bitmask[i];
+            }
+            
+            long carKey = Zobrist.key(carId, car.firstCell());
+            
             for (Direction dir : car.getPossibleDirections()) {
                 String moveDesc = carId + "-" + dir.name().toLowerCase();
                 
                 Car movedCar = car.shift(dir, width, height);
                 
-                while (movedCar != null) {
-                    boolean collision = false;
-                    
-                    Map<Character, Car> tempCars = new HashMap<>(cars);
-                    tempCars.put(carId, movedCar);
-                    long[] tempOccupied = buildOccupiedMask(tempCars, width, height);
-                    
-                    int totalBits = 0;
-                    for (Car c : tempCars.values()) {
-                        for (int i = 0; i < c.bitmask.length; i++) {
-                            totalBits += Long.bitCount(c.bitmask[i]);
-                        }
+                while (movedCar != null && !overlaps(movedCar.bitmask, others)) {
+                    long[] nextOccupied = others.clone();
+                    for (int i = 0; i < nextOccupied.length && i < movedCar.bitmask.length; i++) {
+                        nextOccupied[i] |= movedCar.bitmask[i];
                     }
                     
-                    int occupiedBits = 0;
-                    for (int i = 0; i < tempOccupied.length; i++) {
-                        occupiedBits += Long.bitCount(tempOccupied[i]);
-                    }
+                    State nextState = this.copy(this, moveDesc);
+                    nextState.cars.put(carId, movedCar);
+                    nextState.occupied = nextOccupied;
+                    nextState.zobrist = zobrist ^ carKey ^ Zobrist.key(carId, movedCar.firstCell());
+                    nextStates.add(nextState);
                     
-                    if (totalBits != occupiedBits) {
-                        collision = true;
-                    }
-                    
-                    if (!collision) {
-                        State nextState = this.copy(this, moveDesc);
-                        nextState.cars.put(carId, movedCar);
-                        nextState.occupied = tempOccupied;
-                        nextStates.add(nextState);
-                        
-                        movedCar = movedCar.shift(dir, width, height);
-                    } else {
-                        break;
-                    }
+                    movedCar = movedCar.shift(dir, width, height);
                 }
             }
         }
@@ -250,6 +295,20 @@ public class State {
         return nextStates;
     }
 
+    /**
+     * Checks whether two chunked masks share any cell.
+     * 
+     * @param a First mask
+     * @param b Second mask
+     * @return True if at least one cell is set in both masks
+     */
+    private static boolean overlaps(long[] a, long[] b) {
+        for (int i = 0; i < a.length && i < b.length; i++) {
+            if ((a[i] & b[i]) != 0) return true;
+        }
+        return false;
+    }
+
     /**
      * Checks if a car collides with any other car when moved.
      * 
@@ -283,11 +342,12 @@ public class State {
      */
     @Override
     public int hashCode() {
-        return cars.hashCode();
+        return (int) (zobrist ^ (zobrist >>> 32));
     }
 
     /**
      * Compares this state with another state for equality.
+     * The car positions are only compared when the Zobrist hashes match.
      * 
      * @param obj Object to compare with
      * @return True if states are equal, false otherwise
@@ -295,7 +355,12 @@ public class State {
     @Override
     public boolean equals(Object obj) {
         if (!(obj instanceof State other)) return false;
-        return this.cars.equals(other.cars);
+        if (this.zobrist != other.zobrist || this.cars.size() != other.cars.size()) return false;
+        for (Map.Entry<Character, Car> entry : cars.entrySet()) {
+            Car otherCar = other.cars.get(entry.getKey());
+            if (otherCar == null || !Arrays.equals(entry.getValue().bitmask, otherCar.bitmask)) return false;
+        }
+        return true;
     }
 
     /**
@@ -305,6 +370,17 @@ public class State {
      */
     public List<String> getMoveHistory() {
         List<String> moves = new ArrayList<>();
+        if (pathMoves != null) {
+            // Sama seperti rantai parent: langkah kosong state awal ikut dihitung
+            if (origin.move != null) {
+                moves.add(origin.move);
+            }
+            for (int move : pathMoves) {
+                moves.add(PathStore.describe(move));
+            }
+            return moves;
+        }
+
         State cur = this;
         while (cur != null && cur.move != null) {
             moves.add(cur.move);
@@ -313,4 +389,39 @@ public class State {
         Collections.reverse(moves);
         return moves;
     }
-}
\ No newline at end of file
+
+    /**
+     * Builds the list of states from the initial state to this state.
+     * States from a compact {@link PathStore} search are rebuilt by
+     * replaying their moves on the initial state; otherwise the parent links are followed.
+     * 
+     * @param width Width of the puzzle grid
+     * @param height Height of the puzzle grid
+     * @return States in order from the initial state to this state
+     */
+    public List<State> getSolutionPath(int width, int height) {
+        List<State> path = new ArrayList<>();
+        if (pathMoves == null) {
+            for (State cur = this; cur != null; cur = cur.parent) {
+                path.add(cur);
+            }
+            Collections.reverse(path);
+            return path;
+        }
+
+        State current = origin;
+        path.add(current);
+        for (int move : pathMoves) {
+            Car car = current.cars.get(PathStore.carId(move));
+            for (int i = 0; i < PathStore.distance(move); i++) {
+                car = car.shift(PathStore.direction(move), width, height);
+            }
+
+            Map<Character, Car> nextCars = new HashMap<>(current.cars);
+            nextCars.put(car.id, car);
+            current = new State(nextCars, current, PathStore.describe(move), current.cost + 1);
+            path.add(current);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,107 @@
+package util;
+
+/**
+ * Visited set with one bit per ranked state.
+ * Uses {@link StateRanker} as a perfect hash, so there are no keys, no probing and
+ * no collisions; the memory is fixed at one bit per rank, far below a {@link StateTable}
+ * on boards whose rank space is small. Stores membership only, not costs.
+ */
+public class StateBitset {
+    private static final long MAX_WORDS = Integer.MAX_VALUE - 8; // Batas panjang array long[]
+
+    private final StateRanker ranker;
+    private final long[] bits;
+    private int size;
+
+    /**
+     * Creates an empty bitset for the ranks of a ranker.
+     *
+     * @param ranker Ranking of the puzzle, small enough for one long[] of bits
+     */
+    public StateBitset(StateRanker ranker) {
+        this.ranker = ranker;
+        this.bits = new long[(int) ((ranker.size() + 63) >>> 6)];
+    }
+
+    /**
+     * Creates a bitset for the puzzle of a board if its rank space is small enough.
+     * The bitset is allocated up front, so it is only built when it takes at most
+     * a quarter of the maximum heap.
+     *
+     * @param board Board descriptor
+     * @param initial Initial state on that board
+     * @return Empty bitset, or null if the states cannot be ranked or the bits do not fit
+     */
+    public static StateBitset forBoard(Board board, PackedState initial) {
+        if (board.hasOverlap(initial)) return null;
+        StateRanker ranker = new StateRanker(board, initial);
+        return fits(ranker.size(), Runtime.getRuntime().maxMemory()) ? new StateBitset(ranker) : null;
+    }
+
+    /**
+     * Checks whether a bitset over a number of ranks fits in a heap.
+     *
+     * @param ranks Number of ranks
+     * @param maxMemory Maximum heap size in bytes
+     * @return True if the bits take at most a quarter of the heap and fit in one array
+     */
+    private static boolean fits(long ranks, long maxMemory) {
+        return ranks >= 0 && (ranks + 63) >>> 6 <= MAX_WORDS && ranks / 8 <= maxMemory / 4;
+    }
+
+    /**
+     * Returns the number of states in the set.
+     *
+     * @return Number of set bits
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether a state is in the set.
+     *
+     * @param state State to look up
+     * @return True if the state was added before
+     */
+    public boolean contains(PackedState state) {
+        return get(ranker.rank(state));
+    }
+
+    /**
+     * Checks whether the successor a cursor currently points at is in the set,
+     * without building that successor.
+     *
+     * @param move Cursor positioned on a move
+     * @return True if the successor was added before
+     */
+    public boolean contains(Board.MoveCursor move) {
+        return get(ranker.rank(move.parent(), move.car, move.offset));
+    }
+
+    /**
+     * Adds a state to the set.
+     *
+     * @param state State to add
+     * @return True if the state was not in the set yet
+     */
+    public boolean add(PackedState state) {
+        long rank = ranker.rank(state);
+        int word = (int) (rank >>> 6);
+        long bit = 1L << rank;
+        if ((bits[word] & bit) != 0) return false;
+        bits[word] |= bit;
+        size++;
+        return true;
+    }
+
+    /**
+     * Reads the bit of a rank.
+     *
+     * @param rank Rank of a state
+     * @return True if the bit is set
+     */
+    private boolean get(long rank) {
+        return (bits[(int) (rank >>> 6)] & (1L << rank)) != 0;
+    }
+}
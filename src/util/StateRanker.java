@@ -0,0 +1,166 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Perfect hash from car placements to dense ranks.
+ * Cars that share a lane can never pass each other, so their order along the lane
+ * is fixed by the initial state. The cars of one lane are ranked together as a
+ * combination (gaps between them, combinatorial number system) and the lanes are
+ * combined in mixed radix. Every placement reachable from the initial state gets
+ * a distinct rank in [0, size), and {@link #unrank} turns a rank back into offsets.
+ */
+public class StateRanker {
+    private final Board board;
+    private final int[][] groupCars;  // [group][i], mobil dalam satu lajur, urut dari offset terkecil
+    private final long[] groupSize;   // Jumlah susunan per lajur
+    private final long[] multiplier;  // Bobot mixed radix per lajur
+    private final int[] groupOf;      // [car], lajur milik mobil
+    private final long[][] binomial;  // [n][k]
+    private final long size;
+
+    /**
+     * Builds the ranking for a board, using the car order of the initial state.
+     *
+     * @param board Board descriptor
+     * @param initial Initial state on that board
+     */
+    public StateRanker(Board board, PackedState initial) {
+        this.board = board;
+
+        // Kelompokkan mobil per lajur: baris untuk horizontal, kolom untuk vertikal
+        List<List<Integer>> groups = new ArrayList<>();
+        List<Integer> groupKeys = new ArrayList<>();
+        this.groupOf = new int[board.carCount];
+        for (int car = 0; car < board.carCount; car++) {
+            int key = board.horizontal[car] ? board.lane[car] : -1 - board.lane[car];
+            int group = groupKeys.indexOf(key);
+            if (group < 0) {
+                group = groups.size();
+                groupKeys.add(key);
+                groups.add(new ArrayList<>());
+            }
+            groups.get(group).add(car);
+            groupOf[car] = group;
+        }
+
+        int maxLane = Math.max(board.width, board.height);
+        this.binomial = new long[maxLane + 2][maxLane + 2];
+        for (int n = 0; n < binomial.length; n++) {
+            binomial[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                binomial[n][k] = binomial[n - 1][k - 1] + binomial[n - 1][k];
+            }
+        }
+
+        int groupCount = groups.size();
+        this.groupCars = new int[groupCount][];
+        this.groupSize = new long[groupCount];
+        this.multiplier = new long[groupCount];
+        long total = 1;
+        for (int g = 0; g < groupCount; g++) {
+            Integer[] cars = groups.get(g).toArray(new Integer[0]);
+            Arrays.sort(cars, (a, b) -> Integer.compare(initial.offset(a), initial.offset(b)));
+            groupCars[g] = new int[cars.length];
+            int occupied = 0;
+            for (int i = 0; i < cars.length; i++) {
+                groupCars[g][i] = cars[i];
+                occupied += board.length[cars[i]];
+            }
+            int free = Math.max(0, board.laneLength(cars[0]) - occupied);
+            groupSize[g] = binomial[free + cars.length][cars.length];
+            multiplier[g] = total;
+            total = total > Long.MAX_VALUE / groupSize[g] ? Long.MAX_VALUE : total * groupSize[g];
+        }
+        this.size = total;
+    }
+
+    /**
+     * Returns the number of ranks, an upper bound on the number of reachable placements.
+     *
+     * @return Size of the rank space, {@code Long.MAX_VALUE} if it does not fit in a long
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the rank of a state.
+     *
+     * @param state Packed state reachable from the initial state
+     * @return Rank in [0, size)
+     */
+    public long rank(PackedState state) {
+        return rank(state, -1, 0);
+    }
+
+    /**
+     * Returns the rank of a state with one car moved, without building the successor.
+     *
+     * @param state Packed state before the move
+     * @param car Index of the moved car, -1 for no move
+     * @param newOffset Offset of the moved car after the move
+     * @return Rank of the successor
+     */
+    public long rank(PackedState state, int car, int newOffset) {
+        long rank = 0;
+        for (int g = 0; g < groupCars.length; g++) {
+            rank += groupRank(g, state.offsets, car, newOffset) * multiplier[g];
+        }
+        return rank;
+    }
+
+    /**
+     * Writes the car offsets of a rank into an offset array.
+     *
+     * @param rank Rank in [0, size)
+     * @param offsets Output array indexed like {@link Board#ids}
+     */
+    public void unrank(long rank, byte[] offsets) {
+        for (int g = 0; g < groupCars.length; g++) {
+            long r = rank / multiplier[g] % groupSize[g];
+            int[] cars = groupCars[g];
+            // Kombinasi didekode dari mobil terakhir, lalu celah diubah kembali menjadi offset
+            int s = board.laneLength(cars[0]);
+            int[] slots = new int[cars.length];
+            for (int i = cars.length - 1; i >= 0; i--) {
+                s--;
+                while (binomial[s][i + 1] > r) {
+                    s--;
+                }
+                slots[i] = s;
+                r -= binomial[s][i + 1];
+            }
+            int shift = 0;
+            for (int i = 0; i < cars.length; i++) {
+                offsets[cars[i]] = (byte) (slots[i] + shift);
+                shift += board.length[cars[i]] - 1;
+            }
+        }
+    }
+
+    /**
+     * Ranks the cars of one lane: each car is shifted left by the extra length of the
+     * cars before it, which turns the offsets into a strictly increasing combination.
+     *
+     * @param group Lane index
+     * @param offsets Car offsets of the state
+     * @param car Index of a car to override, -1 for none
+     * @param newOffset Offset used for the overridden car
+     * @return Rank of the lane in [0, groupSize)
+     */
+    private long groupRank(int group, byte[] offsets, int car, int newOffset) {
+        int[] cars = groupCars[group];
+        long rank = 0;
+        int shift = 0;
+        for (int i = 0; i < cars.length; i++) {
+            int c = cars[i];
+            int offset = c == car ? newOffset : offsets[c] & 0xFF;
+            rank += binomial[offset - shift][i + 1];
+            shift += board.length[c] - 1;
+        }
+        return rank;
+    }
+}
@@ -0,0 +1,197 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table from packed states to their best known path cost.
+ * Keys are the 64-bit fingerprints of the states; the car offsets are kept
+ * alongside so two different states with the same fingerprint never merge.
+ */
+public class StateTable {
+    public static final int NOT_FOUND = -1;
+
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private final int carCount;
+    private long[] keys;
+    private int[] costs; // NOT_FOUND menandakan slot kosong
+    private byte[] offsets;
+    private int mask;
+    private int size;
+
+    /**
+     * Creates an empty table for states of the given board.
+     *
+     * @param board Board descriptor of the stored states
+     */
+    public StateTable(Board board) {
+        this.carCount = board.carCount;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns the number of stored states.
+     *
+     * @return Number of states in the table
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Looks up the stored cost of a state.
+     *
+     * @param state State to look up
+     * @return Stored cost, or {@link #NOT_FOUND} if the state is not in the table
+     */
+    public int get(PackedState state) {
+        int slot = find(state.fingerprint, state.offsets);
+        return slot < 0 ? NOT_FOUND : costs[slot];
+    }
+
+    /**
+     * Looks up the stored cost of the successor a cursor currently points at,
+     * without building that successor.
+     *
+     * @param move Cursor positioned on a move
+     * @return Stored cost, or {@link #NOT_FOUND} if the successor is not in the table
+     */
+    public int get(Board.MoveCursor move) {
+        PackedState base = move.parent();
+        int slot = (int) mix(move.fingerprint) & mask;
+        while (costs[slot] != NOT_FOUND) {
+            if (keys[slot] == move.fingerprint && sameMove(slot, base.offsets, move.car, move.offset)) {
+                return costs[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Checks whether a state is in the table.
+     *
+     * @param state State to look up
+     * @return True if the state is stored, false otherwise
+     */
+    public boolean contains(PackedState state) {
+        return find(state.fingerprint, state.offsets) >= 0;
+    }
+
+    /**
+     * Stores a state with the given cost, replacing any previous cost.
+     *
+     * @param state State to store
+     * @param cost Path cost of the state, must not be negative
+     */
+    public void put(PackedState state, int cost) {
+        if ((size + 1) * 4 > keys.length * 3) {
+            allocate(keys.length * 2);
+        }
+
+        int slot = (int) mix(state.fingerprint) & mask;
+        while (costs[slot] != NOT_FOUND) {
+            if (keys[slot] == state.fingerprint && sameOffsets(slot, state.offsets)) {
+                costs[slot] = cost;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = state.fingerprint;
+        costs[slot] = cost;
+        System.arraycopy(state.offsets, 0, offsets, slot * carCount, carCount);
+        size++;
+    }
+
+    /**
+     * Finds the slot holding a state.
+     *
+     * @param fingerprint Fingerprint of the state
+     * @param stateOffsets Car offsets of the state
+     * @return Slot index, or -1 if the state is not in the table
+     */
+    private int find(long fingerprint, byte[] stateOffsets) {
+        int slot = (int) mix(fingerprint) & mask;
+        while (costs[slot] != NOT_FOUND) {
+            if (keys[slot] == fingerprint && sameOffsets(slot, stateOffsets)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Compares the offsets stored in a slot with the offsets of a state.
+     *
+     * @param slot Slot index
+     * @param stateOffsets Car offsets of the state
+     * @return True if all offsets match
+     */
+    private boolean sameOffsets(int slot, byte[] stateOffsets) {
+        int base = slot * carCount;
+        for (int i = 0; i < carCount; i++) {
+            if (offsets[base + i] != stateOffsets[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Compares the offsets stored in a slot with a state that has one car moved.
+     *
+     * @param slot Slot index
+     * @param baseOffsets Car offsets before the move
+     * @param car Index of the moved car
+     * @param newOffset Offset of the moved car after the move
+     * @return True if all offsets match
+     */
+    private boolean sameMove(int slot, byte[] baseOffsets, int car, int newOffset) {
+        int base = slot * carCount;
+        for (int i = 0; i < carCount; i++) {
+            int expected = i == car ? newOffset : baseOffsets[i] & 0xFF;
+            if ((offsets[base + i] & 0xFF) != expected) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Allocates a new backing array and re-inserts the existing entries.
+     *
+     * @param capacity New capacity, must be a power of two
+     */
+    private void allocate(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldCosts = costs;
+        byte[] oldOffsets = offsets;
+
+        keys = new long[capacity];
+        costs = new int[capacity];
+        offsets = new byte[capacity * carCount];
+        mask = capacity - 1;
+        Arrays.fill(costs, NOT_FOUND);
+
+        if (oldKeys == null) return;
+        for (int old = 0; old < oldKeys.length; old++) {
+            if (oldCosts[old] == NOT_FOUND) continue;
+            int slot = (int) mix(oldKeys[old]) & mask;
+            while (costs[slot] != NOT_FOUND) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[old];
+            costs[slot] = oldCosts[old];
+            System.arraycopy(oldOffsets, old * carCount, offsets, slot * carCount, carCount);
+        }
+    }
+
+    /**
+     * Spreads the fingerprint bits so linear probing works with any fingerprint.
+     *
+     * @param fingerprint Fingerprint of a state
+     * @return Mixed value used to pick the home slot
+     */
+    private static long mix(long fingerprint) {
+        long h = fingerprint * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+}
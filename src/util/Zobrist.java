@@ -0,0 +1,42 @@
+package util;
+
+/**
+ * Zobrist keys for car placements.
+ * The hash of a configuration is the XOR of the keys of every car's first cell,
+ * so moving one car updates the hash with two XORs.
+ */
+public final class Zobrist {
+
+    private Zobrist() {
+    }
+
+    /**
+     * Returns the pseudo-random key of a car whose first cell is at the given index.
+     * Keys are deterministic, so the same configuration always hashes the same way.
+     *
+     * @param carId Car identifier
+     * @param cell Index of the car's first (top or left) cell
+     * @return 64-bit Zobrist key
+     */
+    public static long key(char carId, int cell) {
+        // SplitMix64 finalizer over (id, cell)
+        long z = ((long) carId << 32 | cell) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Computes the Zobrist hash of a set of cars from scratch.
+     *
+     * @param cars Cars on the board
+     * @return XOR of every car's key
+     */
+    public static long hash(Iterable<Car> cars) {
+        long hash = 0;
+        for (Car car : cars) {
+            hash ^= key(car.id, car.firstCell());
+        }
+        return hash;
+    }
+}